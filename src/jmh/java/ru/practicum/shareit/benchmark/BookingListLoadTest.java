@@ -0,0 +1,130 @@
+package ru.practicum.shareit.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Нагрузочный прогон списков бронирований против запущенного приложения: сначала блокирующий
+ * путь (Accept: application/json), затем неблокирующий (Accept: application/x-ndjson, нужен
+ * shareit.bookings.reactive.enabled=true). Для каждого пути выводит p50/p99/max времени ответа,
+ * число ошибок и пиковые jvm.threads.live и jvm.memory.used (heap) сервера из actuator.
+ *
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=ru.practicum.shareit.benchmark.BookingListLoadTest \
+ *     -Dexec.args="http://localhost:8080 1 /bookings/owner?state=ALL 1000 20"
+ * </pre>
+ * Аргументы: адрес приложения, X-Sharer-User-Id, путь, число одновременных клиентов, запросов на клиента.
+ * Клиент запускается на отдельной машине: на одном ядре с сервером он измеряет собственную конкуренцию за CPU.
+ */
+public class BookingListLoadTest {
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\":([0-9.E+-]+)");
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(200);
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String userId = args.length > 1 ? args[1] : "1";
+        String path = args.length > 2 ? args[2] : "/bookings/owner?state=ALL";
+        int clients = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        int requests = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        System.out.printf("%-10s %8s %8s %8s %8s %8s %12s%n",
+                "path", "p50 ms", "p99 ms", "max ms", "errors", "threads", "heap MB");
+        for (String accept : List.of("application/json", "application/x-ndjson")) {
+            Result result = run(httpClient, baseUrl, userId, path, accept, clients, requests);
+            System.out.printf("%-10s %8.1f %8.1f %8.1f %8d %8.0f %12.1f%n",
+                    accept.endsWith("ndjson") ? "reactive" : "blocking",
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0),
+                    result.errors, result.peakThreads, result.peakHeap / (1024 * 1024));
+        }
+    }
+
+    private static Result run(HttpClient httpClient, String baseUrl, String userId, String path, String accept,
+                              int clients, int requests) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("X-Sharer-User-Id", userId)
+                .header("Accept", accept)
+                .timeout(Duration.ofMinutes(1))
+                .build();
+        long[] latencies = new long[clients * requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        double[] peaks = new double[2];
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (running.get()) {
+                peaks[0] = Math.max(peaks[0], metric(httpClient, baseUrl, "jvm.threads.live"));
+                peaks[1] = Math.max(peaks[1], metric(httpClient, baseUrl, "jvm.memory.used?tag=area:heap"));
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(clients);
+            for (int client = 0; client < clients; client++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < requests; i++) {
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException | InterruptedException e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[next.getAndIncrement()] = System.nanoTime() - started;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            running.set(false);
+            sampler.join();
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors.get(), peaks[0], peaks[1]);
+    }
+
+    private static double metric(HttpClient httpClient, String baseUrl, String name) {
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = METRIC_VALUE.matcher(response.body());
+            return matcher.find() ? Double.parseDouble(matcher.group(1)) : 0;
+        } catch (IOException | InterruptedException e) {
+            return 0;
+        }
+    }
+
+    private record Result(long[] latencies, int errors, double peakThreads, double peakHeap) {
+        double percentile(double percentile) {
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingMapperBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.user(1);
+        List<Item> items = Fixtures.items(50, owner);
+        bookings = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Item item = items.get((int) (id % items.size()));
+            bookings.add(Fixtures.booking(id, item, Fixtures.user(2 + id % 100), id - size / 2));
+        }
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> toBookingCreatedDtoList() {
+        return BookingMapper.toBookingCreatedDto(bookings);
+    }
+}
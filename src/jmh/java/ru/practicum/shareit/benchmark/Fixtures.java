@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+final class Fixtures {
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private static final String[] WORDS = {"дрель", "перфоратор", "лестница", "палатка", "велосипед",
+        "шуруповёрт", "пила", "самокат", "проектор", "надувная лодка"};
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        return new User(id, "user" + id, "user" + id + "@mail.ru");
+    }
+
+    static Item item(long id, User owner) {
+        String word = WORDS[(int) (id % WORDS.length)];
+        return new Item(id, word + " " + id, "Отличная " + word + " для дома и дачи, модель " + id,
+                id % 5 != 0, owner, null);
+    }
+
+    static Booking booking(long id, Item item, User booker, long hoursFromNow) {
+        return booking(id, item, booker, NOW.plusHours(hoursFromNow));
+    }
+
+    static Booking booking(long id, Item item, User booker, LocalDateTime start) {
+        return new Booking(id, start, start.plusHours(2), item, booker, BookingStatus.APPROVED);
+    }
+
+    static Comment comment(long id, Item item, User author) {
+        return new Comment(id, "Комментарий " + id, item, author, NOW.minusDays(id % 30));
+    }
+
+    static List<Item> items(int count, User owner) {
+        List<Item> items = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            items.add(item(id, owner));
+        }
+        return items;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return answer.apply(args);
+        });
+    }
+
+    /**
+     * Менеджер транзакций без базы: бенчмарки работают с заглушками репозиториев.
+     */
+    static PlatformTransactionManager noTransactions() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.InMemoryUserStorage;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class InMemoryUserStorageBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int users;
+
+    private InMemoryUserStorage userStorage;
+    private String takenEmail;
+
+    @Setup
+    public void setUp() {
+        userStorage = new InMemoryUserStorage();
+        for (long id = 1; id <= users; id++) {
+            User user = Fixtures.user(id);
+            user.setId(null);
+            userStorage.addUser(user);
+        }
+        takenEmail = "USER" + (users / 2) + "@MAIL.RU";
+    }
+
+    @Benchmark
+    public boolean emailTakenByAnotherUser() {
+        return userStorage.emailExists(takenEmail, 1L);
+    }
+
+    @Benchmark
+    public boolean emailFree() {
+        return userStorage.emailExists("new-user@mail.ru", null);
+    }
+}
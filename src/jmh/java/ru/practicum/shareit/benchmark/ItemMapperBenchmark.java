@@ -0,0 +1,61 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.storage.BookingMapper;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.BookerInfoDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemMapperBenchmark {
+
+    private Item item;
+    private BookerInfoDto lastBooking;
+    private BookerInfoDto nextBooking;
+    private List<CommentDto> comments;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.user(1);
+        User booker = Fixtures.user(2);
+        item = Fixtures.item(1, owner);
+        lastBooking = BookingMapper.toBookingInfoDto(Fixtures.booking(1, item, booker, -24));
+        nextBooking = BookingMapper.toBookingInfoDto(Fixtures.booking(2, item, booker, 24));
+        comments = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            comments.add(CommentMapper.toCommentDto(Fixtures.comment(id, item, booker)));
+        }
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public ItemDto toItemDtoWithBookingsAndComments() {
+        return ItemMapper.toItemDto(item, lastBooking, nextBooking, comments);
+    }
+}
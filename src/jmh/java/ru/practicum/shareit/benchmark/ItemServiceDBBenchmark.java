@@ -0,0 +1,114 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositary.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repositary.BookingRepository;
+import ru.practicum.shareit.booking.storage.ItemAvailabilityCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemServiceDB;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemVersions;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.user.storage.InMemoryUserStorage;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка списка вещей владельца с последним/следующим бронированием и комментариями
+ * без базы данных: репозитории заменены заглушками с заранее подготовленными строками.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemServiceDBBenchmark {
+
+    @Param({"10", "1000"})
+    private int items;
+
+    private ItemServiceDB itemService;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.user(1);
+        User booker = Fixtures.user(2);
+        List<Item> ownerItems = Fixtures.items(items, owner);
+        List<Booking> lastAndNext = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        // Сервис делит бронирования на последние и следующие по текущему времени, а не по Fixtures.NOW.
+        LocalDateTime now = LocalDateTime.now();
+        long id = 1;
+        for (Item item : ownerItems) {
+            lastAndNext.add(Fixtures.booking(id++, item, booker, now.minusHours(48)));
+            lastAndNext.add(Fixtures.booking(id++, item, booker, now.plusHours(48)));
+            comments.add(Fixtures.comment(id, item, booker));
+        }
+
+        ItemRepository itemRepository = Fixtures.stub(ItemRepository.class,
+                Map.of("findAllByOwnerId", args -> ownerItems));
+        BookingRepository bookingRepository = Fixtures.stub(BookingRepository.class,
+                Map.of("findLastAndNextApprovedBookingsForItems", args -> lastAndNext));
+        CommentRepository commentRepository = Fixtures.stub(CommentRepository.class,
+                Map.of("findCommentsByItemIds", args -> comments));
+        BookingArchiveRepository bookingArchiveRepository = Fixtures.stub(BookingArchiveRepository.class,
+                Map.of("findLastApprovedBookingsForItems", args -> List.of()));
+        // Эти зависимости в сборке списка вещей не участвуют: заглушки без ответов упадут при первом вызове.
+        UserRepository userRepository = Fixtures.stub(UserRepository.class, Map.of());
+        ItemRequestRepository itemRequestRepository = Fixtures.stub(ItemRequestRepository.class, Map.of());
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserService userService = new UserServiceImpl(new InMemoryUserStorage());
+        itemService = new ItemServiceDB(
+                new ItemServiceImpl(new InMemoryItemStorage(), userService),
+                itemRepository,
+                bookingRepository,
+                commentRepository,
+                userService,
+                userRepository,
+                new ItemSearchIndex(itemRepository, Fixtures.noTransactions(), meterRegistry),
+                bookingArchiveRepository,
+                itemRequestRepository,
+                new ItemAvailabilityCache(bookingRepository, Duration.ofMinutes(5), 10_000, meterRegistry),
+                new ItemVersions());
+
+        List<ItemDto> result = itemService.getUserItems(1L);
+        if (result.size() != items || result.get(0).getLastBooking() == null
+                || result.get(0).getNextBooking() == null || result.get(0).getComments().isEmpty()) {
+            throw new IllegalStateException("getUserItems не собрал бронирования и комментарии: проверьте заглушки");
+        }
+    }
+
+    @Benchmark
+    public List<ItemDto> getUserItems() {
+        return itemService.getUserItems(1L);
+    }
+}
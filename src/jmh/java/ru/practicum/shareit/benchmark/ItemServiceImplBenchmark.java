@@ -0,0 +1,56 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemServiceImplBenchmark {
+
+    @Param({"1000", "100000"})
+    private int items;
+
+    @Param({"дрель", "модель 42", "нет такого"})
+    private String text;
+
+    private ItemServiceImpl itemService;
+
+    @Setup
+    public void setUp() {
+        InMemoryItemStorage itemStorage = new InMemoryItemStorage();
+        for (long ownerId = 1; ownerId <= 100; ownerId++) {
+            User owner = Fixtures.user(ownerId);
+            for (Item item : Fixtures.items(items / 100, owner)) {
+                item.setId(null);
+                itemStorage.addItem(item);
+            }
+        }
+        itemService = new ItemServiceImpl(itemStorage, null);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItems() {
+        return itemService.searchItems(text);
+    }
+}
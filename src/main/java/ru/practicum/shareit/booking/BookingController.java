@@ -1,35 +1,52 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.Create;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.JsonArrayStreamer;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Slf4j
 @RestController
 @RequestMapping("/bookings")
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     private final UserService userService;
     private final ItemService itemService;
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     public BookingController(@Qualifier("userServiceDB") UserService userService,
                              @Qualifier("itemServiceDB")ItemService itemService,
-                             BookingService bookingService) {
+                             BookingService bookingService,
+                             BookingExportService bookingExportService,
+                             JsonArrayStreamer jsonArrayStreamer) {
         this.userService = userService;
         this.itemService = itemService;
         this.bookingService = bookingService;
+        this.bookingExportService = bookingExportService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     @PostMapping
@@ -40,6 +57,13 @@ public class BookingController {
         return bookingService.create(userDto, itemDto, bookingInputDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestBody List<BookingCreateDto> bookingInputDtos) {
+        UserDto userDto = userService.getUserById(userId);
+        return bookingService.createBatch(userDto, bookingInputDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingResponseDto approveByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
                                            @RequestParam("approved") Boolean approved,
@@ -53,19 +77,79 @@ public class BookingController {
         return bookingService.getBookingByIdAndUser(bookingId, userId);
     }
 
-    @GetMapping
-    public List<BookingResponseDto> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @RequestParam(value = "state", defaultValue = "ALL") State state) {
+    @GetMapping(params = "limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BookingResponseDto>> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(value = "state", defaultValue = "ALL") State state,
+                                                           @RequestParam(value = "cursor", required = false) String cursor,
+                                                           @RequestParam("limit") int limit) {
+        UserDto userDto = userService.getUserById(userId);
+        return toPage(bookingService.findAllByBooker(userDto.getId(), state, KeysetCursor.decode(cursor), limit), limit);
+    }
+
+    @GetMapping(params = "!limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void streamAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                          @RequestParam(value = "state", defaultValue = "ALL") State state,
+                          @RequestParam(value = "cursor", required = false) String cursor,
+                          HttpServletResponse response) throws IOException {
+        UserDto userDto = userService.getUserById(userId);
+        KeysetCursor first = KeysetCursor.decode(cursor);
+        jsonArrayStreamer.write(response, (BookingResponseDto last, int pageSize) ->
+                bookingService.findAllByBooker(userDto.getId(), state, after(first, last), pageSize));
+    }
+
+    @GetMapping(value = "/owner", params = "limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BookingResponseDto>> getAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                  @RequestParam(value = "state", defaultValue = "ALL") State state,
+                                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                                  @RequestParam("limit") int limit) {
+        UserDto userDto = userService.getUserById(userId);
+        return toPage(bookingService.findAllByOwner(userDto.getId(), state, KeysetCursor.decode(cursor), limit), limit);
+    }
+
+    @GetMapping(value = "/owner", params = "!limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void streamAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                 @RequestParam(value = "state", defaultValue = "ALL") State state,
+                                 @RequestParam(value = "cursor", required = false) String cursor,
+                                 HttpServletResponse response) throws IOException {
+        UserDto userDto = userService.getUserById(userId);
+        KeysetCursor first = KeysetCursor.decode(cursor);
+        jsonArrayStreamer.write(response, (BookingResponseDto last, int pageSize) ->
+                bookingService.findAllByOwner(userDto.getId(), state, after(first, last), pageSize));
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto getSummary(@RequestHeader("X-Sharer-User-Id") Long userId) {
         UserDto userDto = userService.getUserById(userId);
+        return bookingService.getSummaryByBooker(userDto.getId());
+    }
 
-        return bookingService.findAllByBooker(userDto.getId(), state);
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getSummaryByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        UserDto userDto = userService.getUserById(userId);
+        return bookingService.getSummaryByOwner(userDto.getId());
     }
 
-    @GetMapping("/owner")
-    public List<BookingResponseDto> getAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @RequestParam(value = "state", defaultValue = "ALL") State state) {
+    @GetMapping("/owner/export")
+    public void exportByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                              @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+                              HttpServletResponse response) throws IOException {
         UserDto userDto = userService.getUserById(userId);
+        response.setContentType(format == ExportFormat.CSV ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        bookingExportService.exportByOwner(userDto.getId(), format, response.getWriter());
+    }
+
+    private static KeysetCursor after(KeysetCursor first, BookingResponseDto last) {
+        return last == null ? first : KeysetCursor.after(last.getStart(), last.getId());
+    }
 
-        return bookingService.findAllByOwner(userDto.getId(), state);
+    private static ResponseEntity<List<BookingResponseDto>> toPage(List<BookingResponseDto> bookings, int limit) {
+        if (bookings.size() < limit) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingResponseDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, KeysetCursor.after(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
 }
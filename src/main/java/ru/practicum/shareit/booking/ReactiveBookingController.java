@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.ReactiveBookingReader;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+/**
+ * Списки бронирований в виде NDJSON-потока для клиентов с Accept: application/x-ndjson.
+ * Поток запроса Tomcat освобождается сразу после проверки пользователя, строки пишутся
+ * в ответ по мере чтения через R2DBC.
+ */
+@RestController
+@RequestMapping("/bookings")
+@ConditionalOnProperty(name = "shareit.bookings.reactive.enabled", havingValue = "true")
+public class ReactiveBookingController {
+    private final UserService userService;
+    private final ReactiveBookingReader reactiveBookingReader;
+
+    public ReactiveBookingController(@Qualifier("userServiceDB") UserService userService,
+                                     ReactiveBookingReader reactiveBookingReader) {
+        this.userService = userService;
+        this.reactiveBookingReader = reactiveBookingReader;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookingResponseDto> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           @RequestParam(value = "state", defaultValue = "ALL") State state,
+                                           @RequestParam(value = "cursor", required = false) String cursor,
+                                           @RequestParam(value = "limit", required = false) Integer limit) {
+        UserDto userDto = userService.getUserById(userId);
+
+        return reactiveBookingReader.findAllByBooker(userDto.getId(), state, KeysetCursor.decode(cursor), limit);
+    }
+
+    @GetMapping(value = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookingResponseDto> getAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam(value = "state", defaultValue = "ALL") State state,
+                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "limit", required = false) Integer limit) {
+        UserDto userDto = userService.getUserById(userId);
+
+        return reactiveBookingReader.findAllByOwner(userDto.getId(), state, KeysetCursor.decode(cursor), limit);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+
+@Value
+public class BookingBatchResultDto {
+    int index;
+    boolean success;
+    BookingResponseDto booking;
+    String error;
+
+    public static BookingBatchResultDto success(int index, BookingResponseDto booking) {
+        return new BookingBatchResultDto(index, true, booking, null);
+    }
+
+    public static BookingBatchResultDto failure(int index, String error) {
+        return new BookingBatchResultDto(index, false, null, error);
+    }
+}
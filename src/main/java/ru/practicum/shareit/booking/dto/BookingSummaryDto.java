@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+
+@Value
+public class BookingSummaryDto {
+    long all;
+    long current;
+    long past;
+    long future;
+    long waiting;
+    long rejected;
+
+    public static BookingSummaryDto of(BookingStateCounts counts) {
+        return new BookingSummaryDto(count(counts.getAllCount()),
+                count(counts.getCurrentCount()),
+                count(counts.getPastCount()),
+                count(counts.getFutureCount()),
+                count(counts.getWaitingCount()),
+                count(counts.getRejectedCount()));
+    }
+
+    private static long count(Long value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.event;
+
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.util.List;
+
+/**
+ * Подписчик на изменения статусов бронирований. Вызывается в потоках конвейера событий пачками,
+ * внутри пачки события идут в порядке возрастания ID. Доставка «хотя бы один раз»: если любой
+ * подписчик бросил исключение, пачка будет доставлена всем подписчикам повторно.
+ */
+public interface BookingEventListener {
+    void onEvents(List<BookingEvent> events);
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class BookingEventMetrics implements BookingEventListener {
+    private final Map<BookingStatus, Counter> counters = new EnumMap<>(BookingStatus.class);
+
+    public BookingEventMetrics(MeterRegistry meterRegistry) {
+        for (BookingStatus status : BookingStatus.values()) {
+            counters.put(status, Counter.builder("bookings.status.changes")
+                    .description("Количество переходов бронирований в статус")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void onEvents(List<BookingEvent> events) {
+        for (BookingEvent event : events) {
+            counters.get(event.getStatus()).increment();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package ru.practicum.shareit.booking.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.TransactionHooks;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.repositary.BookingEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Конвейер событий бронирований. Сервис пишет событие в таблицу booking_events в своей транзакции,
+ * поток-ретранслятор после коммита (или по таймеру) перекладывает новые записи в ограниченные
+ * очереди потребителей, а потребители разбирают свою очередь пачками, вызывают подписчиков и удаляют
+ * доставленные записи. Очередь выбирается по ID бронирования, поэтому события одного бронирования
+ * доставляются одним потребителем по порядку. Если очередь заполнена, ретранслятор перестает читать
+ * таблицу до ее освобождения. Пачку, на которой упал подписчик, потребитель повторяет через интервал
+ * опроса, не беря следующих событий. ID событий выдаются последовательностью с кэшированием и могут
+ * фиксироваться не по порядку: ретранслятор откатывается к ID, закоммиченным этим экземпляром,
+ * а раз в интервал перемотки перечитывает таблицу с начала. При shareit.bookings.events.enabled=false
+ * потоки не запускаются и события копятся в таблице.
+ */
+@Component
+public class BookingEventPipeline {
+    private static final Logger log = LoggerFactory.getLogger(BookingEventPipeline.class);
+
+    private final BookingEventRepository bookingEventRepository;
+    private final List<BookingEventListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final List<BlockingQueue<BookingEvent>> partitions = new ArrayList<>();
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lowestCommittedId = new AtomicLong(Long.MAX_VALUE);
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final List<Thread> threads = new ArrayList<>();
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration rewindInterval;
+    private final boolean enabled;
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final Counter backpressureCounter;
+    private final Timer lagTimer;
+    private volatile boolean running;
+    private long lastEnqueuedId;
+    private long lastRewind;
+
+    public BookingEventPipeline(BookingEventRepository bookingEventRepository,
+                                List<BookingEventListener> listeners,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.bookings.events.capacity:1024}") int capacity,
+                                @Value("${shareit.bookings.events.consumers:2}") int consumers,
+                                @Value("${shareit.bookings.events.batch-size:100}") int batchSize,
+                                @Value("${shareit.bookings.events.poll-interval:PT1S}") Duration pollInterval,
+                                @Value("${shareit.bookings.events.rewind-interval:PT1M}") Duration rewindInterval,
+                                @Value("${shareit.bookings.events.enabled:true}") boolean enabled) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.listeners = listeners;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < consumers; i++) {
+            partitions.add(new ArrayBlockingQueue<>(Math.max(1, capacity / consumers)));
+        }
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.rewindInterval = rewindInterval;
+        this.enabled = enabled;
+        this.deliveredCounter = Counter.builder("bookings.events.delivered")
+                .description("Количество событий бронирований, доставленных всем подписчикам")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("bookings.events.failed")
+                .description("Количество событий бронирований, доставка которых завершилась ошибкой")
+                .register(meterRegistry);
+        this.backpressureCounter = Counter.builder("bookings.events.backpressure")
+                .description("Сколько раз ретранслятор останавливался из-за заполненного буфера")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("bookings.events.lag")
+                .description("Время от записи события бронирования до его доставки")
+                .register(meterRegistry);
+        Gauge.builder("bookings.events.buffer.size", partitions,
+                        queues -> queues.stream().mapToInt(BlockingQueue::size).sum())
+                .description("Количество событий бронирований в буфере")
+                .register(meterRegistry);
+        Gauge.builder("bookings.events.buffer.remaining", partitions,
+                        queues -> queues.stream().mapToInt(BlockingQueue::remainingCapacity).sum())
+                .description("Свободное место в буфере событий бронирований")
+                .register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Booking booking) {
+        BookingEvent event = bookingEventRepository.save(BookingEvent.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .bookerId(booking.getBooker().getId())
+                .ownerId(booking.getItem().getOwner().getId())
+                .status(booking.getStatus())
+                .created(LocalDateTime.now())
+                .build());
+        Long eventId = event.getId();
+        TransactionHooks.afterCommit(() -> {
+            lowestCommittedId.accumulateAndGet(eventId, Math::min);
+            wakeUp.release();
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running || !enabled) {
+            return;
+        }
+        running = true;
+        threads.add(new Thread(this::relayLoop, "booking-events-relay"));
+        for (int i = 0; i < partitions.size(); i++) {
+            BlockingQueue<BookingEvent> partition = partitions.get(i);
+            threads.add(new Thread(() -> consumeLoop(partition), "booking-events-consumer-" + i));
+        }
+        for (Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+        log.info("Конвейер событий бронирований запущен: буфер {}, потребителей {}",
+                partitions.size() * partitions.get(0).remainingCapacity(), partitions.size());
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            thread.join(pollInterval.toMillis());
+        }
+        threads.clear();
+    }
+
+    private void relayLoop() {
+        while (running) {
+            try {
+                wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+                relay();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (DataAccessException e) {
+                log.error("Не удалось прочитать события бронирований: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void relay() {
+        if (System.nanoTime() - lastRewind >= rewindInterval.toNanos()) {
+            lastEnqueuedId = 0;
+            lastRewind = System.nanoTime();
+        }
+        long committedId = lowestCommittedId.getAndSet(Long.MAX_VALUE);
+        if (committedId <= lastEnqueuedId) {
+            lastEnqueuedId = committedId - 1;
+        }
+        while (true) {
+            List<BookingEvent> events = transactionTemplate.execute(status ->
+                    bookingEventRepository.findPending(lastEnqueuedId, PageRequest.of(0, batchSize)));
+            if (events.isEmpty()) {
+                return;
+            }
+            for (BookingEvent event : events) {
+                if (!inFlight.contains(event.getId())) {
+                    if (!partitionOf(event).offer(event)) {
+                        backpressureCounter.increment();
+                        return;
+                    }
+                    inFlight.add(event.getId());
+                }
+                lastEnqueuedId = event.getId();
+            }
+            if (events.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private BlockingQueue<BookingEvent> partitionOf(BookingEvent event) {
+        return partitions.get(Math.floorMod(Long.hashCode(event.getBookingId()), partitions.size()));
+    }
+
+    private void consumeLoop(BlockingQueue<BookingEvent> partition) {
+        List<BookingEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                BookingEvent first = partition.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                partition.drainTo(batch, batchSize - 1);
+                while (!deliver(batch) && running) {
+                    Thread.sleep(pollInterval.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                for (BookingEvent event : batch) {
+                    inFlight.remove(event.getId());
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean deliver(List<BookingEvent> batch) {
+        List<BookingEvent> events = Collections.unmodifiableList(batch);
+        List<Long> ids = batch.stream().map(BookingEvent::getId).toList();
+        try {
+            for (BookingEventListener listener : listeners) {
+                listener.onEvents(events);
+            }
+            transactionTemplate.executeWithoutResult(status -> bookingEventRepository.deleteAllByIdIn(ids));
+            deliveredCounter.increment(batch.size());
+            LocalDateTime now = LocalDateTime.now();
+            for (BookingEvent event : batch) {
+                lagTimer.record(Duration.between(event.getCreated(), now));
+            }
+            return true;
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            log.error("Не удалось доставить {} событий бронирований, повтор через {}: {}",
+                    batch.size(), pollInterval, e.getMessage());
+            return false;
+        }
+    }
+}
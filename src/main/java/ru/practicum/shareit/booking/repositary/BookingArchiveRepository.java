@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking.repositary;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.booking.repositary.BookingRepository.AFTER_CURSOR;
+import static ru.practicum.shareit.booking.repositary.BookingRepository.EXPORT_FETCH_SIZE;
+import static ru.practicum.shareit.booking.repositary.BookingRepository.KEYSET_ORDER;
+
+@Repository
+public interface BookingArchiveRepository extends JpaRepository<ArchivedBooking, Long> {
+    String FETCH_ARCHIVED = "SELECT b FROM ArchivedBooking b JOIN FETCH b.item i JOIN FETCH i.owner JOIN FETCH b.booker ";
+
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status) "
+            + "SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyFromBookings(@Param("ids") List<Long> ids);
+
+    @Query(FETCH_ARCHIVED + "WHERE b.id = :bookingId")
+    Optional<ArchivedBooking> findWithItemAndBookerById(Long bookingId);
+
+    @Query("SELECT b FROM ArchivedBooking b " +
+            "WHERE b.booker.id = :bookerId AND b.item.id = :itemId AND b.status = 'APPROVED' AND b.end < :currentTime")
+    List<ArchivedBooking> getAllUserBookings(Long bookerId, Long itemId, LocalDateTime currentTime);
+
+    @Query(value = "SELECT b.* FROM bookings_archive b "
+            + "WHERE b.item_id = :itemId AND b.end_date < :currentTime ORDER BY b.end_date ASC LIMIT 1",
+            nativeQuery = true)
+    Optional<ArchivedBooking> getLastBooking(Long itemId, LocalDateTime currentTime);
+
+    @Query(value = "SELECT id, start_date, end_date, item_id, booker_id, status FROM ("
+            + "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC, b.id DESC) AS rn "
+            + "FROM bookings_archive b WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' "
+            + "AND b.start_date < :currentTime) last_booking WHERE rn = 1",
+            nativeQuery = true)
+    List<ArchivedBooking> findLastApprovedBookingsForItems(@Param("itemIds") List<Long> itemIds,
+                                                           @Param("currentTime") LocalDateTime currentTime);
+
+    @Query(FETCH_ARCHIVED +
+            "WHERE b.booker.id = :bookerId " +
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<ArchivedBooking> getAllBookingsByBookerId(Long bookerId,
+                                                   LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(FETCH_ARCHIVED +
+            "WHERE b.booker.id = :bookerId AND b.status = 'REJECTED' " +
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<ArchivedBooking> getAllRejectedBookingsByBookerId(Long bookerId,
+                                                           LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(FETCH_ARCHIVED +
+            "WHERE b.booker.id = :bookerId AND b.end < :currentTime " +
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<ArchivedBooking> getAllPastBookingsByBookerId(Long bookerId, LocalDateTime currentTime,
+                                                       LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(FETCH_ARCHIVED +
+            "WHERE i.owner.id = :ownerId " +
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<ArchivedBooking> getAllBookingsByOwnerId(Long ownerId,
+                                                  LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(FETCH_ARCHIVED +
+            "WHERE i.owner.id = :ownerId AND b.status = 'REJECTED' " +
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<ArchivedBooking> getAllRejectedBookingsByOwnerId(Long ownerId,
+                                                          LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(FETCH_ARCHIVED +
+            "WHERE i.owner.id = :ownerId AND b.end < :currentTime " +
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<ArchivedBooking> getAllPastBookingsByOwnerId(Long ownerId, LocalDateTime currentTime,
+                                                      LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(FETCH_ARCHIVED +
+            "WHERE i.owner.id = :ownerId " +
+            KEYSET_ORDER)
+    Stream<ArchivedBooking> streamAllByOwnerId(Long ownerId);
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.repositary;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.util.List;
+
+@Repository
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    @Query("SELECT e FROM BookingEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<BookingEvent> findPending(Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM BookingEvent e WHERE e.id IN :ids")
+    int deleteAllByIdIn(List<Long> ids);
+}
@@ -1,95 +1,209 @@
 package ru.practicum.shareit.booking.repositary;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
 import ru.practicum.shareit.booking.model.Booking;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String FETCH_BOOKING = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH i.owner JOIN FETCH b.booker ";
+    String AFTER_CURSOR = "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) ";
+    String KEYSET_ORDER = "ORDER BY b.start DESC, b.id DESC";
+    String EXPORT_FETCH_SIZE = "500";
+    String STATE_COUNTS = "SELECT COUNT(*) AS allCount, "
+            + "SUM(CASE WHEN :currentTime BETWEEN b.start_date AND b.end_date THEN 1 ELSE 0 END) AS currentCount, "
+            + "SUM(CASE WHEN b.end_date < :currentTime THEN 1 ELSE 0 END) AS pastCount, "
+            + "SUM(CASE WHEN b.start_date > :currentTime THEN 1 ELSE 0 END) AS futureCount, "
+            + "SUM(CASE WHEN b.status = 'WAITING' AND b.start_date > :currentTime THEN 1 ELSE 0 END) AS waitingCount, "
+            + "SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END) AS rejectedCount ";
 
     @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
             "WHERE b.booker.id = :bookerId AND i.id = :itemId AND b.status = 'APPROVED' AND b.end < :currentTime")
     List<Booking> getAllUserBookings(Long bookerId, Long itemId, LocalDateTime currentTime);
 
-    @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
+    @Query(FETCH_BOOKING +
             "WHERE b.booker.id = :bookerId " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllBookingsByBookerId(Long bookerId);
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<Booking> getAllBookingsByBookerId(Long bookerId,
+                                           LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
+    @Query(FETCH_BOOKING +
             "WHERE b.booker.id = :bookerId AND :currentTime BETWEEN b.start AND b.end " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllCurrentBookingsByBookerId(Long bookerId, LocalDateTime currentTime);
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<Booking> getAllCurrentBookingsByBookerId(Long bookerId, LocalDateTime currentTime,
+                                                  LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
+    @Query(FETCH_BOOKING +
             "WHERE b.booker.id = :bookerId AND b.start > :currentTime " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllFutureBookingsByBookerId(Long bookerId, LocalDateTime currentTime);
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<Booking> getAllFutureBookingsByBookerId(Long bookerId, LocalDateTime currentTime,
+                                                 LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
+    @Query(FETCH_BOOKING +
             "WHERE b.booker.id = :bookerId AND b.status = 'REJECTED' " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllRejectedBookingsByBookerId(Long bookerId);
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<Booking> getAllRejectedBookingsByBookerId(Long bookerId,
+                                                   LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
+    @Query(FETCH_BOOKING +
             "WHERE b.booker.id = :bookerId AND b.end < :currentTime " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllPastBookingsByBookerId(Long bookerId, LocalDateTime currentTime);
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<Booking> getAllPastBookingsByBookerId(Long bookerId, LocalDateTime currentTime,
+                                               LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
+    @Query(FETCH_BOOKING +
             "WHERE b.booker.id = :bookerId AND b.status = 'WAITING' AND b.start > :currentTime " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllWaitingBookingsByBookerId(Long bookerId, LocalDateTime currentTime);
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<Booking> getAllWaitingBookingsByBookerId(Long bookerId, LocalDateTime currentTime,
+                                                  LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
+    @Query(FETCH_BOOKING +
             "WHERE i.owner.id = :ownerId " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllBookingsByOwnerId(Long ownerId);
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<Booking> getAllBookingsByOwnerId(Long ownerId,
+                                          LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
+    @Query(FETCH_BOOKING +
             "WHERE i.owner.id = :ownerId AND :currentTime BETWEEN b.start AND b.end " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllCurrentBookingsByOwnerId(Long ownerId, LocalDateTime currentTime);
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<Booking> getAllCurrentBookingsByOwnerId(Long ownerId, LocalDateTime currentTime,
+                                                 LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
+    @Query(FETCH_BOOKING +
             "WHERE i.owner.id = :ownerId AND b.status = 'WAITING' AND b.start > :currentTime " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllWaitingBookingsByOwnerId(Long ownerId, LocalDateTime currentTime);
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<Booking> getAllWaitingBookingsByOwnerId(Long ownerId, LocalDateTime currentTime,
+                                                 LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
+    @Query(FETCH_BOOKING +
             "WHERE i.owner.id = :ownerId AND b.start > :currentTime " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllFutureBookingsByOwnerId(Long ownerId, LocalDateTime currentTime);
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<Booking> getAllFutureBookingsByOwnerId(Long ownerId, LocalDateTime currentTime,
+                                                LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
+    @Query(FETCH_BOOKING +
             "WHERE i.owner.id = :ownerId AND b.status = 'REJECTED' " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllRejectedBookingsByOwnerId(Long ownerId);
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<Booking> getAllRejectedBookingsByOwnerId(Long ownerId,
+                                                  LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b JOIN Item i ON b.item.id = i.id " +
+    @Query(FETCH_BOOKING +
             "WHERE i.owner.id = :ownerId AND b.end < :currentTime " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllPastBookingsByOwnerId(Long ownerId, LocalDateTime currentTime);
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<Booking> getAllPastBookingsByOwnerId(Long ownerId, LocalDateTime currentTime,
+                                              LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
-    @Query(value = "SELECT * FROM bookings b JOIN items i ON i.id = b.item_id "
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(FETCH_BOOKING +
+            "WHERE i.owner.id = :ownerId " +
+            KEYSET_ORDER)
+    Stream<Booking> streamAllByOwnerId(Long ownerId);
+
+    @Query(value = STATE_COUNTS + "FROM ("
+            + "SELECT start_date, end_date, status FROM bookings WHERE booker_id = :bookerId "
+            + "UNION ALL "
+            + "SELECT start_date, end_date, status FROM bookings_archive WHERE booker_id = :bookerId) b",
+            nativeQuery = true)
+    BookingStateCounts countByStateForBooker(@Param("bookerId") Long bookerId,
+                                             @Param("currentTime") LocalDateTime currentTime);
+
+    @Query(value = STATE_COUNTS + "FROM ("
+            + "SELECT h.start_date, h.end_date, h.status FROM bookings h "
+            + "JOIN items i ON i.id = h.item_id WHERE i.owner = :ownerId "
+            + "UNION ALL "
+            + "SELECT a.start_date, a.end_date, a.status FROM bookings_archive a "
+            + "JOIN items i ON i.id = a.item_id WHERE i.owner = :ownerId) b",
+            nativeQuery = true)
+    BookingStateCounts countByStateForOwner(@Param("ownerId") Long ownerId,
+                                            @Param("currentTime") LocalDateTime currentTime);
+
+    @Query("SELECT MIN(b.start) FROM Booking b WHERE b.item.owner.id = :ownerId AND b.status = 'APPROVED' "
+            + "AND b.start > :currentTime")
+    LocalDateTime findNextApprovedStartByOwnerId(@Param("ownerId") Long ownerId,
+                                                 @Param("currentTime") LocalDateTime currentTime);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.end < :threshold ORDER BY b.id")
+    List<Long> findIdsEndedBefore(LocalDateTime threshold, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteAllByIdIn(List<Long> ids);
+
+    @Query(FETCH_BOOKING + "WHERE b.id = :bookingId")
+    Optional<Booking> findWithItemAndBookerById(Long bookingId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status " +
+            "WHERE b.id = :bookingId AND b.status = 'WAITING' " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int updateStatusIfWaiting(Long bookingId, Long ownerId, BookingStatus status);
+
+    @Query(value = "SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id "
             + "WHERE b.item_id = :itemId AND b.end_date < :currentTime ORDER BY b.end_date ASC LIMIT 1",
             nativeQuery = true)
     Optional<Booking> getLastBooking(Long itemId, LocalDateTime currentTime);
 
-    @Query(value = "SELECT * FROM bookings b JOIN items i ON i.id = b.item_id "
+    @Query(value = "SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id "
             + "WHERE b.item_id = :itemId AND b.start_date > :currentTime AND b.status != 'REJECTED' ORDER BY b.start_date ASC LIMIT 1",
             nativeQuery = true)
     Optional<Booking> getNextBooking(Long itemId, LocalDateTime currentTime);
 
     @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id IN :itemIds " +
-            "AND b.status = 'APPROVED' " +
-            "ORDER BY b.start ASC")
-    List<Booking> findApprovedBookingsForItems(@Param("itemIds") List<Long> itemIds);
+            "WHERE b.item.id = :itemId AND b.status <> 'REJECTED' AND b.end > :currentTime")
+    List<Booking> getActiveBookingsByItemId(Long itemId, LocalDateTime currentTime);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status <> 'REJECTED' AND b.end > :currentTime")
+    List<Booking> getActiveBookingsByItemIdIn(Collection<Long> itemIds, LocalDateTime currentTime);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status <> 'REJECTED' " +
+            "AND b.start < :rangeEnd AND b.end > :rangeStart")
+    List<Long> findBusyItemIds(Collection<Long> itemIds, LocalDateTime rangeStart, LocalDateTime rangeEnd);
+
+    @Query("SELECT b.start AS start, b.end AS end FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status <> 'REJECTED' AND b.end > :currentTime " +
+            "ORDER BY b.start")
+    List<BookingPeriod> getActivePeriodsByItemId(Long itemId, LocalDateTime currentTime);
+
+    @Query(value = "SELECT id, start_date, end_date, item_id, booker_id, status FROM ("
+            + "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC, b.id DESC) AS rn "
+            + "FROM bookings b WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' "
+            + "AND b.start_date < :currentTime) last_booking WHERE rn = 1 "
+            + "UNION ALL "
+            + "SELECT id, start_date, end_date, item_id, booker_id, status FROM ("
+            + "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC, b.id ASC) AS rn "
+            + "FROM bookings b WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' "
+            + "AND b.start_date > :currentTime) next_booking WHERE rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextApprovedBookingsForItems(@Param("itemIds") List<Long> itemIds,
+                                                          @Param("currentTime") LocalDateTime currentTime);
 }
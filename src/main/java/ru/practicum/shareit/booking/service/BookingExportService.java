@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.ExportFormat;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositary.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repositary.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка всей истории бронирований владельца. Строки основной и архивной таблиц читаются
+ * однонаправленными курсорами, сливаются по порядку и пишутся в ответ по одной, а прочитанные
+ * сущности сразу отсоединяются от контекста, поэтому память не растет с количеством бронирований.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingExportService {
+    private static final Logger log = LoggerFactory.getLogger(BookingExportService.class);
+    private static final Comparator<Booking> KEYSET_ORDER = Comparator
+            .comparing(Booking::getStart)
+            .thenComparing(Booking::getId)
+            .reversed();
+    private static final String CSV_HEADER = "id,start,end,status,item_id,item_name,booker_id,booker_name,booker_email";
+
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportByOwner(Long ownerId, ExportFormat format, Writer writer) throws IOException {
+        log.info("Выгрузка бронирований владельца с ID {} в формате {}", ownerId, format);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long count = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamAllByOwnerId(ownerId);
+             Stream<ArchivedBooking> archivedBookings = bookingArchiveRepository.streamAllByOwnerId(ownerId)) {
+            Iterator<Booking> hot = bookings.iterator();
+            Iterator<Booking> archived = archivedBookings
+                    .map(archivedBooking -> {
+                        entityManager.detach(archivedBooking);
+                        return BookingMapper.toBooking(archivedBooking);
+                    })
+                    .iterator();
+            Booking nextHot = next(hot);
+            Booking nextArchived = next(archived);
+            while (nextHot != null || nextArchived != null) {
+                Booking booking;
+                if (nextArchived == null || (nextHot != null && KEYSET_ORDER.compare(nextHot, nextArchived) <= 0)) {
+                    booking = nextHot;
+                    nextHot = next(hot);
+                } else {
+                    booking = nextArchived;
+                    nextArchived = next(archived);
+                }
+                writer.write(format == ExportFormat.CSV ? toCsv(booking) : toJson(booking));
+                writer.write('\n');
+                detach(booking);
+                count++;
+            }
+        }
+        writer.flush();
+        log.info("Выгружено {} бронирований владельца с ID {}", count, ownerId);
+    }
+
+    private static Booking next(Iterator<Booking> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private String toJson(Booking booking) throws IOException {
+        return objectMapper.writeValueAsString(BookingMapper.toBookingCreatedDto(booking));
+    }
+
+    private static String toCsv(Booking booking) {
+        return String.join(",",
+                String.valueOf(booking.getId()),
+                String.valueOf(booking.getStart()),
+                String.valueOf(booking.getEnd()),
+                booking.getStatus().name(),
+                String.valueOf(booking.getItem().getId()),
+                csvField(booking.getItem().getName()),
+                String.valueOf(booking.getBooker().getId()),
+                csvField(booking.getBooker().getName()),
+                csvField(booking.getBooker().getEmail()));
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void detach(Booking booking) {
+        entityManager.detach(booking);
+        entityManager.detach(booking.getBooker());
+        entityManager.detach(booking.getItem().getOwner());
+        entityManager.detach(booking.getItem());
+    }
+}
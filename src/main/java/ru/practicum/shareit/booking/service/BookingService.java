@@ -1,9 +1,12 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -11,11 +14,17 @@ import java.util.List;
 public interface BookingService {
     BookingResponseDto create(UserDto userDto, ItemDto itemDto, BookingCreateDto bookingInputDto);
 
+    List<BookingBatchResultDto> createBatch(UserDto userDto, List<BookingCreateDto> bookingInputDtos);
+
     BookingResponseDto approveByOwner(Long userId, Long bookingId, Boolean approved);
 
     BookingResponseDto getBookingByIdAndUser(Long bookingId, Long userId);
 
-    List<BookingResponseDto> findAllByBooker(Long bookerId, State state);
+    List<BookingResponseDto> findAllByBooker(Long bookerId, State state, KeysetCursor cursor, Integer limit);
+
+    List<BookingResponseDto> findAllByOwner(Long userId, State state, KeysetCursor cursor, Integer limit);
+
+    BookingSummaryDto getSummaryByBooker(Long bookerId);
 
-    List<BookingResponseDto> findAllByOwner(Long userId, State state);
+    BookingSummaryDto getSummaryByOwner(Long ownerId);
 }
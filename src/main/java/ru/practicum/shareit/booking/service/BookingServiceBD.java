@@ -1,38 +1,120 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.TransactionHooks;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.event.BookingEventPipeline;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositary.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repositary.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
 import ru.practicum.shareit.booking.storage.BookingMapper;
+import ru.practicum.shareit.booking.storage.BookingSummaryCache;
+import ru.practicum.shareit.booking.storage.ItemAvailabilityCache;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenOperationException;
 import ru.practicum.shareit.exception.IncorrectStateException;
 import ru.practicum.shareit.exception.MissingFieldException;
 import ru.practicum.shareit.exception.ResourceNotFoundException;
+import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemVersions;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceBD implements BookingService {
+    private static final String BOOKER = "booker";
+    private static final String OWNER = "owner";
+    private static final Comparator<Booking> KEYSET_ORDER = Comparator
+            .comparing(Booking::getStart)
+            .thenComparing(Booking::getId)
+            .reversed();
 
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final ItemRepository itemRepository;
     private final UserService userService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingSummaryCache bookingSummaryCache;
+    private final ItemAvailabilityCache itemAvailabilityCache;
+    private final BookingEventPipeline bookingEventPipeline;
+    private final ItemVersions itemVersions;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional
     public BookingResponseDto create(UserDto userDto, ItemDto itemDto, BookingCreateDto bookingInputDto) {
+        return BookingMapper.toBookingCreatedDto(reserve(userDto, itemDto, bookingInputDto));
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBatch(UserDto userDto, List<BookingCreateDto> bookingInputDtos) {
+        Set<Long> itemIds = new HashSet<>();
+        for (BookingCreateDto bookingInputDto : bookingInputDtos) {
+            if (bookingInputDto != null && bookingInputDto.getItemId() != null) {
+                itemIds.add(bookingInputDto.getItemId());
+            }
+        }
+        Map<Long, ItemDto> items = new HashMap<>();
+        for (Item item : itemRepository.findAllWithOwnerByIdIn(itemIds)) {
+            items.put(item.getId(), ItemMapper.toItemDto(item));
+        }
+        bookingIntervalIndex.preload(items.keySet());
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingInputDtos.size());
+        for (int index = 0; index < bookingInputDtos.size(); index++) {
+            BookingCreateDto bookingInputDto = bookingInputDtos.get(index);
+            try {
+                if (bookingInputDto == null || bookingInputDto.getItemId() == null
+                        || bookingInputDto.getStart() == null || bookingInputDto.getEnd() == null) {
+                    throw new MissingFieldException("Поля itemId, start и end обязательны для заполнения");
+                }
+                ItemDto itemDto = items.get(bookingInputDto.getItemId());
+                if (itemDto == null) {
+                    throw new ResourceNotFoundException("Предмет с ID " + bookingInputDto.getItemId() + " не найден.");
+                }
+                Booking booking = reserve(userDto, itemDto, bookingInputDto);
+                results.add(BookingBatchResultDto.success(index, BookingMapper.toBookingCreatedDto(booking)));
+            } catch (MissingFieldException | ResourceNotFoundException | ConflictException e) {
+                results.add(BookingBatchResultDto.failure(index, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private Booking reserve(UserDto userDto, ItemDto itemDto, BookingCreateDto bookingInputDto) {
         if (!itemDto.getAvailable()) {
             throw new MissingFieldException("Вещь недоступна для бронирования");
         }
@@ -46,26 +128,50 @@ public class BookingServiceBD implements BookingService {
             throw new ResourceNotFoundException("Нельзя забронировать свою собственную вещь");
         }
         Booking booking = BookingMapper.toBooking(bookingInputDto, BookingStatus.WAITING, itemDto, userDto);
-        return BookingMapper.toBookingCreatedDto(bookingRepository.save(booking));
+        Booking savedBooking = bookingIntervalIndex.reserve(itemDto.getId(),
+                bookingInputDto.getStart(), bookingInputDto.getEnd(), () -> bookingRepository.save(booking));
+        bookingEventPipeline.record(savedBooking);
+        TransactionHooks.afterCommit(() -> {
+            bookingSummaryCache.invalidate(userDto.getId(), itemDto.getOwnerId());
+            itemAvailabilityCache.invalidate(itemDto.getId());
+            itemVersions.itemChanged(itemDto.getId(), itemDto.getOwnerId());
+        });
+        return savedBooking;
     }
 
     @Override
     @Transactional
     public BookingResponseDto approveByOwner(Long userId, Long bookingId, Boolean approved) {
-        userService.getUserById(userId);;
-        Booking booking = findBookingById(bookingId);
-        if (!Objects.equals(booking.getItem().getOwner().getId(), userId)) {
-            throw new ForbiddenOperationException("Пользователь с id " + userId +
-                    " не является владельцем вещи, связанной с бронированием id " + bookingId);
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatusIfWaiting(bookingId, userId, status) == 0) {
+            throw rejectedTransition(userId, bookingId);
         }
 
-        if (booking.getStatus().equals(BookingStatus.APPROVED)) {
-            throw new ResourceNotFoundException("Статус уже поставлен для бронирования с id " + bookingId);
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Бронирования нет с id " + bookingId));
+        bookingEventPipeline.record(booking);
+        if (!approved) {
+            TransactionHooks.afterCommit(() -> bookingIntervalIndex.release(booking));
         }
+        TransactionHooks.afterCommit(() -> {
+            bookingSummaryCache.invalidate(booking.getBooker().getId(), userId);
+            itemAvailabilityCache.invalidate(booking.getItem().getId());
+            itemVersions.itemChanged(booking.getItem().getId(), userId);
+        });
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        return BookingMapper.toBookingCreatedDto(booking);
+    }
 
-        return BookingMapper.toBookingCreatedDto(bookingRepository.save(booking));
+    private RuntimeException rejectedTransition(Long userId, Long bookingId) {
+        Optional<Booking> booking = bookingRepository.findWithItemAndBookerById(bookingId);
+        if (booking.isEmpty()) {
+            return new ResourceNotFoundException("Бронирования нет с id " + bookingId);
+        }
+        if (!Objects.equals(booking.get().getItem().getOwner().getId(), userId)) {
+            return new ForbiddenOperationException("Пользователь с id " + userId +
+                    " не является владельцем вещи, связанной с бронированием id " + bookingId);
+        }
+        return new ConflictException("Статус уже поставлен для бронирования с id " + bookingId);
     }
 
     @Override
@@ -84,34 +190,37 @@ public class BookingServiceBD implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingResponseDto> findAllByBooker(Long bookerId, State state) {
+    public List<BookingResponseDto> findAllByBooker(Long bookerId, State state, KeysetCursor cursor, Integer limit) {
         LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursorStart = cursor.getPosition();
+        Long cursorId = cursor.getId();
+        Pageable page = toPageable(limit);
 
         switch (state) {
             case ALL:
-                return BookingMapper
-                        .toBookingCreatedDto(bookingRepository
-                                .getAllBookingsByBookerId(bookerId));
+                return measure("getAllBookingsByBookerId", state, BOOKER, () -> withArchive(
+                        bookingRepository.getAllBookingsByBookerId(bookerId, cursorStart, cursorId, page),
+                        bookingArchiveRepository.getAllBookingsByBookerId(bookerId, cursorStart, cursorId, page),
+                        limit));
             case CURRENT:
-                return BookingMapper
-                        .toBookingCreatedDto(bookingRepository
-                                .getAllCurrentBookingsByBookerId(bookerId, now));
+                return measure("getAllCurrentBookingsByBookerId", state, BOOKER,
+                        () -> bookingRepository.getAllCurrentBookingsByBookerId(bookerId, now, cursorStart, cursorId, page));
             case WAITING:
-                return BookingMapper
-                        .toBookingCreatedDto(bookingRepository
-                                .getAllWaitingBookingsByBookerId(bookerId, now));
+                return measure("getAllWaitingBookingsByBookerId", state, BOOKER,
+                        () -> bookingRepository.getAllWaitingBookingsByBookerId(bookerId, now, cursorStart, cursorId, page));
             case PAST:
-                return BookingMapper
-                        .toBookingCreatedDto(bookingRepository
-                                .getAllPastBookingsByBookerId(bookerId, now));
+                return measure("getAllPastBookingsByBookerId", state, BOOKER, () -> withArchive(
+                        bookingRepository.getAllPastBookingsByBookerId(bookerId, now, cursorStart, cursorId, page),
+                        bookingArchiveRepository.getAllPastBookingsByBookerId(bookerId, now, cursorStart, cursorId, page),
+                        limit));
             case FUTURE:
-                return BookingMapper
-                        .toBookingCreatedDto(bookingRepository
-                                .getAllFutureBookingsByBookerId(bookerId, now));
+                return measure("getAllFutureBookingsByBookerId", state, BOOKER,
+                        () -> bookingRepository.getAllFutureBookingsByBookerId(bookerId, now, cursorStart, cursorId, page));
             case REJECTED:
-                return BookingMapper
-                        .toBookingCreatedDto(bookingRepository
-                                .getAllRejectedBookingsByBookerId(bookerId));
+                return measure("getAllRejectedBookingsByBookerId", state, BOOKER, () -> withArchive(
+                        bookingRepository.getAllRejectedBookingsByBookerId(bookerId, cursorStart, cursorId, page),
+                        bookingArchiveRepository.getAllRejectedBookingsByBookerId(bookerId, cursorStart, cursorId, page),
+                        limit));
             default:
                 throw new IncorrectStateException("Неизвестный статус: " + state);
         }
@@ -119,45 +228,101 @@ public class BookingServiceBD implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingResponseDto> findAllByOwner(Long userId, State state) {
+    public List<BookingResponseDto> findAllByOwner(Long userId, State state, KeysetCursor cursor, Integer limit) {
         LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursorStart = cursor.getPosition();
+        Long cursorId = cursor.getId();
+        Pageable page = toPageable(limit);
 
         switch (state) {
             case ALL:
-                return BookingMapper
-                        .toBookingCreatedDto(bookingRepository
-                                .getAllBookingsByOwnerId(userId));
+                return measure("getAllBookingsByOwnerId", state, OWNER, () -> withArchive(
+                        bookingRepository.getAllBookingsByOwnerId(userId, cursorStart, cursorId, page),
+                        bookingArchiveRepository.getAllBookingsByOwnerId(userId, cursorStart, cursorId, page),
+                        limit));
             case CURRENT:
-                return BookingMapper
-                        .toBookingCreatedDto(bookingRepository
-                                .getAllCurrentBookingsByOwnerId(userId, now));
+                return measure("getAllCurrentBookingsByOwnerId", state, OWNER,
+                        () -> bookingRepository.getAllCurrentBookingsByOwnerId(userId, now, cursorStart, cursorId, page));
             case WAITING:
-                return BookingMapper
-                        .toBookingCreatedDto(bookingRepository
-                                .getAllWaitingBookingsByOwnerId(userId, now));
+                return measure("getAllWaitingBookingsByOwnerId", state, OWNER,
+                        () -> bookingRepository.getAllWaitingBookingsByOwnerId(userId, now, cursorStart, cursorId, page));
             case PAST:
-                return BookingMapper
-                        .toBookingCreatedDto(bookingRepository
-                                .getAllPastBookingsByOwnerId(userId, now));
+                return measure("getAllPastBookingsByOwnerId", state, OWNER, () -> withArchive(
+                        bookingRepository.getAllPastBookingsByOwnerId(userId, now, cursorStart, cursorId, page),
+                        bookingArchiveRepository.getAllPastBookingsByOwnerId(userId, now, cursorStart, cursorId, page),
+                        limit));
             case FUTURE:
-                return BookingMapper
-                        .toBookingCreatedDto(bookingRepository
-                                .getAllFutureBookingsByOwnerId(userId, now));
+                return measure("getAllFutureBookingsByOwnerId", state, OWNER,
+                        () -> bookingRepository.getAllFutureBookingsByOwnerId(userId, now, cursorStart, cursorId, page));
             case REJECTED:
-                return BookingMapper
-                        .toBookingCreatedDto(bookingRepository
-                                .getAllRejectedBookingsByOwnerId(userId));
+                return measure("getAllRejectedBookingsByOwnerId", state, OWNER, () -> withArchive(
+                        bookingRepository.getAllRejectedBookingsByOwnerId(userId, cursorStart, cursorId, page),
+                        bookingArchiveRepository.getAllRejectedBookingsByOwnerId(userId, cursorStart, cursorId, page),
+                        limit));
             default:
                 throw new IncorrectStateException("Неизвестный статус: " + state);
         }
     }
 
-    private Booking findBookingById(Long bookingId) {
-        Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
-        Booking booking = bookingOptional.get();
-        if (booking == null) {
-            throw new ResourceNotFoundException("Бронирования нет с id " + bookingId);
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getSummaryByBooker(Long bookerId) {
+        return bookingSummaryCache.forBooker(bookerId, () -> BookingSummaryDto.of(
+                bookingRepository.countByStateForBooker(bookerId, LocalDateTime.now())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getSummaryByOwner(Long ownerId) {
+        return bookingSummaryCache.forOwner(ownerId, () -> BookingSummaryDto.of(
+                bookingRepository.countByStateForOwner(ownerId, LocalDateTime.now())));
+    }
+
+    private List<BookingResponseDto> measure(String query, State state, String role,
+                                             Supplier<List<Booking>> fetch) {
+        Tags tags = Tags.of("query", query, "state", state.name(), "role", role);
+        List<Booking> bookings = Timer.builder("bookings.query")
+                .description("Время выполнения запросов списков бронирований")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(fetch);
+        DistributionSummary.builder("bookings.query.results")
+                .description("Количество бронирований в ответе на запрос списка")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(bookings.size());
+        return BookingMapper.toBookingCreatedDto(bookings);
+    }
+
+    private static List<Booking> withArchive(List<Booking> bookings, List<ArchivedBooking> archivedBookings,
+                                             Integer limit) {
+        if (archivedBookings.isEmpty()) {
+            return bookings;
+        }
+        List<Booking> merged = new ArrayList<>(bookings.size() + archivedBookings.size());
+        merged.addAll(bookings);
+        for (ArchivedBooking archivedBooking : archivedBookings) {
+            merged.add(BookingMapper.toBooking(archivedBooking));
+        }
+        merged.sort(KEYSET_ORDER);
+        return limit == null || merged.size() <= limit ? merged : merged.subList(0, limit);
+    }
+
+    private Pageable toPageable(Integer limit) {
+        if (limit == null) {
+            return Pageable.unpaged();
         }
-        return booking;
+        if (limit <= 0) {
+            throw new MissingFieldException("Параметр limit должен быть положительным");
+        }
+        return PageRequest.of(0, limit);
+    }
+
+    private Booking findBookingById(Long bookingId) {
+        return bookingRepository.findWithItemAndBookerById(bookingId)
+                .or(() -> bookingArchiveRepository.findWithItemAndBookerById(bookingId).map(BookingMapper::toBooking))
+                .orElseThrow(() -> new ResourceNotFoundException("Бронирования нет с id " + bookingId));
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking.service;
+
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.exception.IncorrectStateException;
+import ru.practicum.shareit.exception.MissingFieldException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Неблокирующее чтение списков бронирований через R2DBC. Условия по State совпадают
+ * с запросами BookingRepository и BookingArchiveRepository, строки отдаются подписчику
+ * по мере чтения из базы. Включается свойством shareit.bookings.reactive.enabled.
+ * Пул соединений R2DBC создается здесь же и не регистрируется как бин, чтобы
+ * инициализация схемы и транзакции JPA продолжали работать через JDBC.
+ */
+@Service
+@ConditionalOnProperty(name = "shareit.bookings.reactive.enabled", havingValue = "true")
+public class ReactiveBookingReader {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveBookingReader.class);
+    private static final String HOT_COLUMNS = "SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings";
+    private static final String ARCHIVE_COLUMNS = "SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings_archive";
+    private static final String SELECT = "SELECT b.id, b.start_date, b.end_date, b.status, "
+            + "u.id AS booker_id, u.name AS booker_name, u.email AS booker_email, "
+            + "i.id AS item_id, i.name AS item_name, i.description AS item_description, "
+            + "i.available AS item_available, i.owner AS item_owner, i.request AS item_request FROM (";
+    private static final String JOINS = ") b JOIN items i ON i.id = b.item_id JOIN users u ON u.id = b.booker_id ";
+    private static final String AFTER_CURSOR = "AND (b.start_date < :cursorStart OR (b.start_date = :cursorStart AND b.id < :cursorId)) ";
+    private static final String KEYSET_ORDER = "ORDER BY b.start_date DESC, b.id DESC";
+    private static final int FETCH_SIZE = 500;
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveBookingReader(@Value("${shareit.bookings.reactive.url}") String url,
+                                 @Value("${shareit.bookings.reactive.username}") String username,
+                                 @Value("${shareit.bookings.reactive.password}") String password) {
+        this.connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+        log.info("Неблокирующее чтение бронирований включено: {}", url);
+    }
+
+    public Flux<BookingResponseDto> findAllByBooker(Long bookerId, State state, KeysetCursor cursor, Integer limit) {
+        return find("b.booker_id = :userId ", bookerId, state, cursor, limit);
+    }
+
+    public Flux<BookingResponseDto> findAllByOwner(Long ownerId, State state, KeysetCursor cursor, Integer limit) {
+        return find("i.owner = :userId ", ownerId, state, cursor, limit);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionFactory instanceof Closeable closeable) {
+            Mono.from(closeable.close()).block(Duration.ofSeconds(10));
+        }
+    }
+
+    private Flux<BookingResponseDto> find(String userCondition, Long userId, State state,
+                                          KeysetCursor cursor, Integer limit) {
+        if (limit != null && limit <= 0) {
+            return Flux.error(new MissingFieldException("Параметр limit должен быть положительным"));
+        }
+        StringBuilder sql = new StringBuilder(SELECT)
+                .append(HOT_COLUMNS);
+        if (state == State.ALL || state == State.PAST || state == State.REJECTED) {
+            sql.append(" UNION ALL ").append(ARCHIVE_COLUMNS);
+        }
+        sql.append(JOINS)
+                .append("WHERE ").append(userCondition)
+                .append(condition(state))
+                .append(AFTER_CURSOR)
+                .append(KEYSET_ORDER);
+        if (limit != null) {
+            sql.append(" LIMIT ").append(limit);
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .bind("userId", userId)
+                .bind("cursorStart", cursor.getPosition())
+                .bind("cursorId", cursor.getId());
+        if (state != State.ALL && state != State.REJECTED) {
+            spec = spec.bind("currentTime", LocalDateTime.now());
+        }
+        return spec.map(ReactiveBookingReader::toDto).all();
+    }
+
+    private static String condition(State state) {
+        switch (state) {
+            case ALL:
+                return "";
+            case CURRENT:
+                return "AND :currentTime BETWEEN b.start_date AND b.end_date ";
+            case WAITING:
+                return "AND b.status = 'WAITING' AND b.start_date > :currentTime ";
+            case PAST:
+                return "AND b.end_date < :currentTime ";
+            case FUTURE:
+                return "AND b.start_date > :currentTime ";
+            case REJECTED:
+                return "AND b.status = 'REJECTED' ";
+            default:
+                throw new IncorrectStateException("Неизвестный статус: " + state);
+        }
+    }
+
+    private static BookingResponseDto toDto(Readable row) {
+        UserDto booker = new UserDto(row.get("booker_id", Long.class),
+                row.get("booker_name", String.class),
+                row.get("booker_email", String.class));
+        ItemDto item = new ItemDto(row.get("item_id", Long.class),
+                row.get("item_name", String.class),
+                row.get("item_description", String.class),
+                row.get("item_available", Boolean.class),
+                row.get("item_owner", Long.class),
+                row.get("item_request", Long.class),
+                null, null, new ArrayList<>());
+        return new BookingResponseDto(row.get("id", Long.class),
+                row.get("start_date", LocalDateTime.class),
+                row.get("end_date", LocalDateTime.class),
+                BookingStatus.valueOf(row.get("status", String.class)),
+                booker, item);
+    }
+}
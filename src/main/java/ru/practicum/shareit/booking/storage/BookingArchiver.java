@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repositary.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repositary.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переносит бронирования, завершившиеся раньше заданного срока, из bookings в bookings_archive.
+ * Перенос идет порциями, каждая в своей транзакции, чтобы не держать длинные блокировки.
+ */
+@Component
+public class BookingArchiver {
+    private static final Logger log = LoggerFactory.getLogger(BookingArchiver.class);
+
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedCounter;
+    private final Duration retention;
+    private final int chunkSize;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           BookingArchiveRepository bookingArchiveRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.bookings.archive.retention:P30D}") Duration retention,
+                           @Value("${shareit.bookings.archive.chunk-size:1000}") int chunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedCounter = Counter.builder("bookings.archived")
+                .description("Количество бронирований, перенесенных в архив")
+                .register(meterRegistry);
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.archive.interval:PT1H}",
+            initialDelayString = "${shareit.bookings.archive.initial-delay:PT1M}")
+    public void archive() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        long total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveChunk(threshold));
+            total += moved;
+        } while (moved == chunkSize);
+        if (total > 0) {
+            log.info("В архив перенесено {} бронирований, завершившихся до {}", total, threshold);
+        }
+    }
+
+    private int moveChunk(LocalDateTime threshold) {
+        List<Long> ids = bookingRepository.findIdsEndedBefore(threshold, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        bookingArchiveRepository.copyFromBookings(ids);
+        bookingRepository.deleteAllByIdIn(ids);
+        archivedCounter.increment(ids.size());
+        return ids.size();
+    }
+}
@@ -0,0 +1,237 @@
+package ru.practicum.shareit.booking.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.TransactionHooks;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositary.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Интервалы активных (WAITING/APPROVED) бронирований по каждой вещи. Закоммиченные интервалы
+ * загружаются из базы при первом обращении и хранятся в ограниченном кэше, а интервалы
+ * незакоммиченных бронирований лежат отдельно до конца транзакции, чтобы их не вытеснило.
+ * В базе уже могут быть пересекающиеся бронирования, поэтому проверка идет назад от нового
+ * интервала, пока начала соседей ближе самого длинного интервала вещи. Операции над одной
+ * вещью сериализуются полосатой блокировкой.
+ */
+@Component
+public class BookingIntervalIndex {
+    private static final int STRIPES = 64;
+    private static final Comparator<Interval> ORDER = Comparator
+            .comparing((Interval interval) -> interval.start)
+            .thenComparingLong(interval -> interval.bookingId);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemIntervals> committed;
+    private final Map<Long, ItemIntervals> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = createLocks();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.bookings.intervals.max-size:10000}") long maxSize,
+                                @Value("${shareit.bookings.intervals.expire-after-access:PT30M}") Duration expireAfterAccess,
+                                MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.committed = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, committed, "bookingIntervals");
+    }
+
+    public Booking reserve(Long itemId, LocalDateTime start, LocalDateTime end, Supplier<Booking> save) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemIntervals intervals = committed.get(itemId, this::load);
+            intervals.pruneFinished(LocalDateTime.now());
+            ItemIntervals uncommitted = pending.get(itemId);
+            if (intervals.overlaps(start, end) || (uncommitted != null && uncommitted.overlaps(start, end))) {
+                throw new ConflictException("Вещь с id " + itemId + " уже забронирована на период с "
+                        + start + " по " + end);
+            }
+            Booking booking = save.get();
+            Interval interval = new Interval(booking.getId(), start, end);
+            pending.computeIfAbsent(itemId, id -> new ItemIntervals()).add(interval);
+            TransactionHooks.afterCommit(() -> commit(itemId, interval));
+            TransactionHooks.afterRollback(() -> removePending(itemId, interval));
+            return booking;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Загружает интервалы всех еще не закэшированных вещей одним запросом, чтобы пакетное
+     * создание не делало отдельный SELECT на каждую вещь и не сбрасывало накопленные вставки.
+     * Запрос выполняется под блокировками этих вещей, иначе коммит, случившийся между
+     * чтением и записью в кэш, потерялся бы.
+     */
+    public void preload(Collection<Long> itemIds) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (Long itemId : itemIds) {
+            stripes.add(stripeOf(itemId));
+        }
+        for (Integer stripe : stripes) {
+            locks[stripe].lock();
+        }
+        try {
+            Map<Long, ItemIntervals> loaded = new HashMap<>();
+            for (Long itemId : itemIds) {
+                if (committed.getIfPresent(itemId) == null) {
+                    loaded.put(itemId, new ItemIntervals());
+                }
+            }
+            if (loaded.isEmpty()) {
+                return;
+            }
+            for (Booking booking : bookingRepository.getActiveBookingsByItemIdIn(loaded.keySet(), LocalDateTime.now())) {
+                loaded.get(booking.getItem().getId())
+                        .add(new Interval(booking.getId(), booking.getStart(), booking.getEnd()));
+            }
+            loaded.forEach(committed.asMap()::putIfAbsent);
+        } finally {
+            for (Integer stripe : stripes.descendingSet()) {
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    public void release(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Interval interval = new Interval(booking.getId(), booking.getStart(), booking.getEnd());
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemIntervals intervals = committed.getIfPresent(itemId);
+            if (intervals != null) {
+                intervals.remove(interval);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void commit(Long itemId, Interval interval) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            removePending(itemId, interval);
+            ItemIntervals intervals = committed.getIfPresent(itemId);
+            if (intervals != null) {
+                intervals.add(interval);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removePending(Long itemId, Interval interval) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemIntervals intervals = pending.get(itemId);
+            if (intervals != null) {
+                intervals.remove(interval);
+                if (intervals.isEmpty()) {
+                    pending.remove(itemId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ItemIntervals load(Long itemId) {
+        ItemIntervals intervals = new ItemIntervals();
+        for (Booking booking : bookingRepository.getActiveBookingsByItemId(itemId, LocalDateTime.now())) {
+            intervals.add(new Interval(booking.getId(), booking.getStart(), booking.getEnd()));
+        }
+        return intervals;
+    }
+
+    private ReentrantLock lockFor(Long itemId) {
+        return locks[stripeOf(itemId)];
+    }
+
+    private static int stripeOf(Long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), STRIPES);
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+
+    private static final class ItemIntervals {
+        private final NavigableSet<Interval> intervals = new TreeSet<>(ORDER);
+        private Duration longest = Duration.ZERO;
+
+        private void add(Interval interval) {
+            intervals.add(interval);
+            Duration length = Duration.between(interval.start, interval.end);
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+        }
+
+        private void remove(Interval interval) {
+            intervals.remove(interval);
+        }
+
+        private boolean isEmpty() {
+            return intervals.isEmpty();
+        }
+
+        private boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            LocalDateTime horizon = start.minus(longest);
+            for (Interval interval : intervals.headSet(new Interval(Long.MIN_VALUE, end, end), false).descendingSet()) {
+                if (!interval.start.isAfter(horizon)) {
+                    return false;
+                }
+                if (interval.end.isAfter(start)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void pruneFinished(LocalDateTime now) {
+            while (!intervals.isEmpty() && intervals.first().end.isBefore(now)) {
+                intervals.pollFirst();
+            }
+        }
+    }
+
+    private static final class Interval {
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Interval(long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
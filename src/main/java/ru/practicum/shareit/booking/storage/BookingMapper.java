@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.storage;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.BookerInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -23,7 +24,7 @@ public class BookingMapper {
         ItemDto itemDto = new ItemDto(booking.getItem().getId(),
                 booking.getItem().getName(), booking.getItem().getDescription(),
                 booking.getItem().getAvailable(), booking.getItem().getOwner().getId(),
-                null, null, new ArrayList<>());
+                booking.getItem().getRequestId(), null, null, new ArrayList<>());
 
         return new BookingResponseDto(booking.getId(),
                 booking.getStart(), booking.getEnd(),
@@ -42,6 +43,15 @@ public class BookingMapper {
                 booking.getStart(), booking.getEnd());
     }
 
+    public static Booking toBooking(ArchivedBooking archivedBooking) {
+        return new Booking(archivedBooking.getId(),
+                archivedBooking.getStart(),
+                archivedBooking.getEnd(),
+                archivedBooking.getItem(),
+                archivedBooking.getBooker(),
+                archivedBooking.getStatus());
+    }
+
     public static Booking toBooking(BookingCreateDto bookingInputDto,
                                     BookingStatus status, ItemDto itemDto, UserDto userDto) {
         Booking booking = new Booking();
@@ -56,6 +66,7 @@ public class BookingMapper {
         item.setDescription(itemDto.getDescription());
         item.setAvailable(itemDto.getAvailable());
         item.setOwner(owner);
+        item.setRequestId(itemDto.getRequestId());
 
         user.setId(userDto.getId());
         user.setName(userDto.getName());
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Кэш счетчиков бронирований по статусам для арендатора и владельца.
+ * Живет недолго и сбрасывается при создании и подтверждении бронирований пользователя.
+ */
+@Component
+public class BookingSummaryCache {
+    private static final String BOOKER = "booker:";
+    private static final String OWNER = "owner:";
+
+    private final Cache<String, BookingSummaryDto> cache;
+
+    public BookingSummaryCache(@Value("${shareit.bookings.summary.ttl:PT30S}") Duration ttl,
+                               @Value("${shareit.bookings.summary.max-size:10000}") long maxSize,
+                               MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "bookingSummaries");
+    }
+
+    public BookingSummaryDto forBooker(Long bookerId, Supplier<BookingSummaryDto> loader) {
+        return cache.get(BOOKER + bookerId, key -> loader.get());
+    }
+
+    public BookingSummaryDto forOwner(Long ownerId, Supplier<BookingSummaryDto> loader) {
+        return cache.get(OWNER + ownerId, key -> loader.get());
+    }
+
+    public void invalidate(Long bookerId, Long ownerId) {
+        cache.invalidate(BOOKER + bookerId);
+        cache.invalidate(OWNER + ownerId);
+    }
+}
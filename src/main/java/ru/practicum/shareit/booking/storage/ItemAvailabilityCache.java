@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.repositary.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Занятые периоды вещи (бронирования в статусах WAITING и APPROVED, еще не закончившиеся)
+ * в виде двух отсортированных массивов начал и концов в микросекундах. Пересекающиеся
+ * и смежные периоды при загрузке склеиваются, поэтому свободные окна находятся
+ * бинарным поиском и одним проходом по массивам.
+ */
+@Component
+public class ItemAvailabilityCache {
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final int NANOS_PER_MICRO = 1_000;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, Timeline> cache;
+
+    public ItemAvailabilityCache(BookingRepository bookingRepository,
+                                 @Value("${shareit.items.availability.ttl:PT5M}") Duration ttl,
+                                 @Value("${shareit.items.availability.max-size:10000}") long maxSize,
+                                 MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemAvailability");
+    }
+
+    public List<AvailabilityWindowDto> freeWindows(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Timeline timeline = cache.get(itemId, this::load);
+        long[] starts = timeline.starts;
+        long[] ends = timeline.ends;
+        long cursor = toMicros(from);
+        long limit = toMicros(to);
+        List<AvailabilityWindowDto> windows = new ArrayList<>();
+        for (int i = firstEndingAfter(ends, cursor); i < starts.length && starts[i] < limit; i++) {
+            if (starts[i] > cursor) {
+                windows.add(new AvailabilityWindowDto(toDateTime(cursor), toDateTime(starts[i])));
+            }
+            cursor = Math.max(cursor, ends[i]);
+        }
+        if (cursor < limit) {
+            windows.add(new AvailabilityWindowDto(toDateTime(cursor), toDateTime(limit)));
+        }
+        return windows;
+    }
+
+    public void invalidate(Long itemId) {
+        cache.invalidate(itemId);
+    }
+
+    private Timeline load(Long itemId) {
+        List<BookingPeriod> periods = bookingRepository.getActivePeriodsByItemId(itemId, LocalDateTime.now());
+        long[] starts = new long[periods.size()];
+        long[] ends = new long[periods.size()];
+        int size = 0;
+        for (BookingPeriod period : periods) {
+            long start = toMicros(period.getStart());
+            long end = toMicros(period.getEnd());
+            if (size > 0 && start <= ends[size - 1]) {
+                ends[size - 1] = Math.max(ends[size - 1], end);
+            } else {
+                starts[size] = start;
+                ends[size] = end;
+                size++;
+            }
+        }
+        return new Timeline(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+    }
+
+    private static int firstEndingAfter(long[] ends, long moment) {
+        int index = Arrays.binarySearch(ends, moment);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + dateTime.getNano() / NANOS_PER_MICRO;
+    }
+
+    private static LocalDateTime toDateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * NANOS_PER_MICRO, ZoneOffset.UTC);
+    }
+
+    private static final class Timeline {
+        private final long[] starts;
+        private final long[] ends;
+
+        private Timeline(long[] starts, long[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+        }
+    }
+}
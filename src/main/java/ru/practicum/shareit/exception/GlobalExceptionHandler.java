@@ -31,4 +31,10 @@ public class GlobalExceptionHandler {
     public ForbiddenOperationException handleForbiddenOperationException(ForbiddenOperationException e) {
         return new ForbiddenOperationException(e.getMessage());
     }
+
+    @ExceptionHandler(ConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ConflictException handleConflictException(ConflictException e) {
+        return new ConflictException(e.getMessage());
+    }
 }
\ No newline at end of file
@@ -1,24 +1,46 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemVersions;
+import ru.practicum.shareit.pagination.JsonArrayStreamer;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/items")
 public class ItemController {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ItemService itemService;
     private final UserService userService;
+    private final ItemImportService itemImportService;
+    private final ItemVersions itemVersions;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
-    public ItemController(ItemService itemService, UserService userService) {
+    public ItemController(ItemService itemService, UserService userService, ItemImportService itemImportService,
+                          ItemVersions itemVersions, JsonArrayStreamer jsonArrayStreamer) {
         this.itemService = itemService;
         this.userService = userService;
+        this.itemImportService = itemImportService;
+        this.itemVersions = itemVersions;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     @PostMapping
@@ -27,6 +49,17 @@ public class ItemController {
         return itemService.createItem(itemDto, userId);
     }
 
+    @PostMapping(value = "/import", consumes = NDJSON)
+    public void importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                            InputStream body,
+                            HttpServletResponse response) throws IOException {
+        UserDto owner = itemImportService.findOwner(userId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        itemImportService.importItems(owner, reader, response.getWriter());
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@PathVariable Long itemId,
                               @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -35,18 +68,41 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getItem(@PathVariable Long itemId) {
+    public ItemDto getItem(@PathVariable Long itemId, WebRequest request) {
+        if (request.checkNotModified(itemVersions.itemTag(itemId))) {
+            return null;
+        }
         return itemService.getItemById(itemId);
     }
 
     @GetMapping
-    public List<ItemDto> getItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.getUserItems(userId);
+    public void getItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                         WebRequest request,
+                         HttpServletResponse response) throws IOException {
+        String etag = itemVersions.ownerItemsTag(userId);
+        if (etag == null) {
+            String state = itemVersions.ownerItemsState(userId);
+            etag = itemVersions.recordOwnerItems(userId, state, itemService.getNextBookingStartByOwner(userId));
+        }
+        if (request.checkNotModified(etag)) {
+            return;
+        }
+        jsonArrayStreamer.write(response, (ItemDto last, int limit) ->
+                itemService.getUserItems(userId, last == null ? null : last.getId(), limit));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilityWindowDto> getAvailability(@PathVariable Long itemId,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getItemAvailability(itemId, from, to);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text) {
-        return itemService.searchItems(text);
+    public List<ItemDto> searchItems(@RequestParam String text,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.searchItems(text, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -19,6 +19,7 @@ public class ItemMapper {
                 item.getDescription(),
                 item.getAvailable(),
                 item.getOwner().getId(),
+                item.getRequestId(),
                 lastBooking,
                 nextBooking,
                 commentDtos);
@@ -30,6 +31,7 @@ public class ItemMapper {
                 item.getDescription(),
                 item.getAvailable(),
                 item.getOwner().getId(),
+                item.getRequestId(),
                 null,
                 null,
                 commentDtos);
@@ -41,6 +43,7 @@ public class ItemMapper {
                 item.getDescription(),
                 item.getAvailable(),
                 item.getOwner().getId(),
+                item.getRequestId(),
                 null,
                 null,
                 new ArrayList<>());
@@ -59,6 +62,7 @@ public class ItemMapper {
         item.setName(itemDto.getName());
         item.setAvailable(itemDto.getAvailable());
         item.setOwner(user);
+        item.setRequestId(itemDto.getRequestId());
 
         return item;
     }
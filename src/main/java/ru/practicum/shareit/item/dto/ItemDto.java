@@ -21,6 +21,7 @@ public class ItemDto {
     @NotNull(groups = {Create.class})
     Boolean available;
     Long ownerId;
+    Long requestId;
     BookerInfoDto lastBooking;
     BookerInfoDto nextBooking;
     List<CommentDto> comments;
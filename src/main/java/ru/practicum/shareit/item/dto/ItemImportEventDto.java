@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportEventDto {
+    String type;
+    Long line;
+    String message;
+    Long processed;
+    Long imported;
+    Long failed;
+
+    public static ItemImportEventDto error(long line, String message) {
+        return new ItemImportEventDto("error", line, message, null, null, null);
+    }
+
+    public static ItemImportEventDto progress(long processed, long imported, long failed) {
+        return new ItemImportEventDto("progress", null, null, processed, imported, failed);
+    }
+
+    public static ItemImportEventDto done(long processed, long imported, long failed) {
+        return new ItemImportEventDto("done", null, null, processed, imported, failed);
+    }
+}
@@ -30,5 +30,8 @@ public class Item {
     @JoinColumn(name = "owner", nullable = false)
     private User owner;
 
+    @Column(name = "request")
+    private Long requestId;
+
 }
 
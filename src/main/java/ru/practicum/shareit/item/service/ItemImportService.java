@@ -0,0 +1,164 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.TransactionHooks;
+import ru.practicum.shareit.exception.MissingFieldException;
+import ru.practicum.shareit.exception.ResourceNotFoundException;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportEventDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemVersions;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Импорт вещей владельца из NDJSON. Тело читается построчно, вещи сохраняются пачками
+ * в отдельных транзакциях, контекст персистентности очищается после каждой пачки,
+ * а ошибки и прогресс сразу пишутся в ответ, поэтому память не зависит от размера файла.
+ */
+@Service
+public class ItemImportService {
+    private static final Logger log = LoggerFactory.getLogger(ItemImportService.class);
+
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemVersions itemVersions;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ItemImportService(ItemRepository itemRepository,
+                             ItemRequestRepository itemRequestRepository,
+                             UserRepository userRepository,
+                             ItemSearchIndex itemSearchIndex,
+                             ItemVersions itemVersions,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${shareit.items.import.batch-size:500}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.userRepository = userRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemVersions = itemVersions;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public UserDto findOwner(Long userId) {
+        return userRepository.findById(userId)
+                .map(UserMapper::toUserDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Пользователь с ID " + userId + " не найден."));
+    }
+
+    public void importItems(UserDto owner, BufferedReader reader, Writer writer) throws IOException {
+        log.info("Импорт вещей для пользователя с ID {}", owner.getId());
+
+        List<Item> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        long processed = 0;
+        long imported = 0;
+        long failed = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            processed++;
+            try {
+                batch.add(toItem(objectMapper.readValue(line, ItemDto.class), owner));
+                batchLines.add(lineNumber);
+            } catch (JsonProcessingException e) {
+                failed++;
+                write(writer, ItemImportEventDto.error(lineNumber, "Некорректный JSON: " + e.getOriginalMessage()));
+            } catch (MissingFieldException | ResourceNotFoundException e) {
+                failed++;
+                write(writer, ItemImportEventDto.error(lineNumber, e.getMessage()));
+            }
+            if (batch.size() >= batchSize) {
+                int saved = saveBatch(batch, batchLines, writer);
+                imported += saved;
+                failed += batch.size() - saved;
+                batch.clear();
+                batchLines.clear();
+                write(writer, ItemImportEventDto.progress(processed, imported, failed));
+            }
+        }
+        if (!batch.isEmpty()) {
+            int saved = saveBatch(batch, batchLines, writer);
+            imported += saved;
+            failed += batch.size() - saved;
+        }
+        write(writer, ItemImportEventDto.done(processed, imported, failed));
+        log.info("Импорт вещей для пользователя с ID {} завершен: сохранено {}, с ошибками {}",
+                owner.getId(), imported, failed);
+    }
+
+    private Item toItem(ItemDto itemDto, UserDto owner) {
+        ItemServiceDB.validateNewItem(itemDto);
+        if (itemDto.getAvailable() == null) {
+            throw new MissingFieldException("Поле 'available' не может быть пустым.");
+        }
+        ItemServiceDB.validateRequest(itemDto, itemRequestRepository);
+        Item item = ItemMapper.toItem(itemDto, owner);
+        item.setId(null);
+        return item;
+    }
+
+    private int saveBatch(List<Item> batch, List<Long> batchLines, Writer writer) throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Item> saved = itemRepository.saveAll(batch);
+                entityManager.flush();
+                entityManager.clear();
+                List<Long> savedIds = saved.stream().map(Item::getId).toList();
+                Long ownerId = saved.get(0).getOwner().getId();
+                TransactionHooks.afterCommit(() -> {
+                    itemSearchIndex.reindex(savedIds);
+                    itemVersions.ownerChanged(ownerId);
+                });
+            });
+            return batch.size();
+        } catch (DataAccessException e) {
+            log.error("Не удалось сохранить пачку из {} вещей: {}", batch.size(), e.getMessage());
+            for (Long batchLine : batchLines) {
+                write(writer, ItemImportEventDto.error(batchLine,
+                        "Пачка не сохранена: " + e.getMostSpecificCause().getMessage()));
+            }
+            return 0;
+        }
+    }
+
+    private void write(Writer writer, ItemImportEventDto event) throws IOException {
+        writer.write(objectMapper.writeValueAsString(event));
+        writer.write('\n');
+        writer.flush();
+    }
+}
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -19,8 +21,16 @@ public interface ItemService {
 
     List<ItemDto> getUserItems(Long userId);
 
+    List<ItemDto> getUserItems(Long userId, Long afterItemId, int limit);
+
+    LocalDateTime getNextBookingStartByOwner(Long userId);
+
     List<ItemDto> searchItems(String text);
 
+    List<ItemDto> searchItems(String text, LocalDateTime from, LocalDateTime to);
+
+    List<AvailabilityWindowDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     List<CommentDto> getAllCommentsByItemId(Long itemId);
 
     CommentDto createComment(CommentDto commentDto, UserDto userDto, ItemDto itemDto);
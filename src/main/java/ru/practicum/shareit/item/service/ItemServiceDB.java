@@ -5,14 +5,20 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.TransactionHooks;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositary.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repositary.BookingRepository;
 import ru.practicum.shareit.booking.storage.BookingMapper;
+import ru.practicum.shareit.booking.storage.ItemAvailabilityCache;
 import ru.practicum.shareit.exception.MissingFieldException;
 import ru.practicum.shareit.exception.ResourceNotFoundException;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.BookerInfoDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -20,6 +26,9 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemVersions;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -35,23 +44,25 @@ import java.util.*;
 @Primary
 public class ItemServiceDB implements ItemService {
     private static final Logger log = LoggerFactory.getLogger(ItemServiceDB.class);
+    private static final int BUSY_ITEMS_CHUNK = 1000;
     private final ItemService itemService;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final UserService userService;
     private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemAvailabilityCache itemAvailabilityCache;
+    private final ItemVersions itemVersions;
 
     @Override
     @Transactional
     public ItemDto createItem(ItemDto itemDto, Long userId) {
         log.info("Создание предмета с записью в базу данных для пользователя с ID {}", userId);
-        if (itemDto.getName() == null || itemDto.getDescription() == null
-                || itemDto.getName().trim().isEmpty()
-                || itemDto.getDescription().trim().isEmpty()) {
-            log.error("Поле 'name/description' не может быть пустым.");
-            throw new MissingFieldException("Поле 'name' не может быть пустым.");
-        }
+        validateNewItem(itemDto);
+        validateRequest(itemDto, itemRequestRepository);
         Optional<User> userOptional = userRepository.findById(userId);
         if (userOptional.isEmpty()) {
             log.error("Пользователь с ID {} не найден.", userId);
@@ -61,10 +72,31 @@ public class ItemServiceDB implements ItemService {
         UserDto userDto = UserMapper.toUserDto(user);
         Item item = ItemMapper.toItem(itemDto, userDto);
         itemRepository.save(item);
+        TransactionHooks.afterCommit(() -> {
+            itemSearchIndex.reindex(List.of(item.getId()));
+            itemVersions.ownerChanged(userId);
+        });
         log.info("Предмет с ID {} успешно создан и сохранен в базе данных.", item.getId());
         return ItemMapper.toItemDto(item);
     }
 
+    static void validateNewItem(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getDescription() == null
+                || itemDto.getName().trim().isEmpty()
+                || itemDto.getDescription().trim().isEmpty()) {
+            log.error("Поле 'name/description' не может быть пустым.");
+            throw new MissingFieldException("Поле 'name' не может быть пустым.");
+        }
+    }
+
+    static void validateRequest(ItemDto itemDto, ItemRequestRepository itemRequestRepository) {
+        Long requestId = itemDto.getRequestId();
+        if (requestId != null && !itemRequestRepository.existsById(requestId)) {
+            log.error("Запрос вещи с ID {} не найден.", requestId);
+            throw new ResourceNotFoundException("Запрос вещи с ID " + requestId + " не найден.");
+        }
+    }
+
     @Override
     @Transactional
     public ItemDto updateItem(Long itemId, Long userId, ItemDto itemDto) {
@@ -90,6 +122,10 @@ public class ItemServiceDB implements ItemService {
             existingItem.setAvailable(newAvailable);
         }
         Item updatedItem = itemRepository.save(existingItem);
+        TransactionHooks.afterCommit(() -> {
+            itemSearchIndex.reindex(List.of(itemId));
+            itemVersions.itemChanged(itemId, userId);
+        });
         log.info("Предмет с ID {} успешно обновлен", itemId);
         return ItemMapper.toItemDto(updatedItem);
     }
@@ -138,21 +174,47 @@ public class ItemServiceDB implements ItemService {
             log.info("В базе данных нет предметов для пользователя с ID {}.", userId);
             return new ArrayList<>();
         }
+        return toUserItemDtos(userItems);
+    }
+
+    @Override
+    @Transactional
+    public List<ItemDto> getUserItems(Long userId, Long afterItemId, int limit) {
+        log.info("Получение до {} предметов пользователя с ID {} после предмета с ID {}", limit, userId, afterItemId);
+        List<Item> userItems = itemRepository.findAllByOwnerIdAfter(userId, afterItemId == null ? 0L : afterItemId,
+                PageRequest.of(0, limit));
+        return userItems.isEmpty() ? new ArrayList<>() : toUserItemDtos(userItems);
+    }
 
+    @Override
+    @Transactional
+    public LocalDateTime getNextBookingStartByOwner(Long userId) {
+        return bookingRepository.findNextApprovedStartByOwnerId(userId, LocalDateTime.now());
+    }
+
+    private List<ItemDto> toUserItemDtos(List<Item> userItems) {
         List<Long> itemIds = new ArrayList<>();
         for (Item item : userItems) {
             itemIds.add(item.getId());
         }
 
-        List<Booking> approvedBookings = bookingRepository.findApprovedBookingsForItems(itemIds);
-
-        Map<Long, List<Booking>> bookingsByItemId = new HashMap<>();
-        for (Booking booking : approvedBookings) {
-            Long itemId = booking.getItem().getId();
-            if (!bookingsByItemId.containsKey(itemId)) {
-                bookingsByItemId.put(itemId, new ArrayList<>());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookerInfoDto> lastBookings = new HashMap<>();
+        Map<Long, BookerInfoDto> nextBookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextApprovedBookingsForItems(itemIds, now)) {
+            Map<Long, BookerInfoDto> target = booking.getStart().isBefore(now) ? lastBookings : nextBookings;
+            target.put(booking.getItem().getId(), BookingMapper.toBookingInfoDto(booking));
+        }
+        List<Long> withoutLastBooking = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            if (!lastBookings.containsKey(itemId)) {
+                withoutLastBooking.add(itemId);
+            }
+        }
+        if (!withoutLastBooking.isEmpty()) {
+            for (ArchivedBooking booking : bookingArchiveRepository.findLastApprovedBookingsForItems(withoutLastBooking, now)) {
+                lastBookings.put(booking.getItem().getId(), BookingMapper.toBookingInfoDto(BookingMapper.toBooking(booking)));
             }
-            bookingsByItemId.get(itemId).add(booking);
         }
 
         List<Comment> comments = commentRepository.findCommentsByItemIds(itemIds);
@@ -170,13 +232,8 @@ public class ItemServiceDB implements ItemService {
         for (Item item : userItems) {
             Long itemId = item.getId();
 
-            List<Booking> itemBookings = bookingsByItemId.get(itemId);
-            if (itemBookings == null) {
-                itemBookings = Collections.emptyList();
-            }
-
-            BookerInfoDto lastBooking = getLastBooking(itemBookings);
-            BookerInfoDto nextBooking = getNextBooking(itemBookings);
+            BookerInfoDto lastBooking = lastBookings.get(itemId);
+            BookerInfoDto nextBooking = nextBookings.get(itemId);
 
             List<Comment> itemComments = commentsByItemId.get(itemId);
             List<CommentDto> commentDtos = new ArrayList<>();
@@ -195,21 +252,69 @@ public class ItemServiceDB implements ItemService {
     @Override
     @Transactional
     public List<ItemDto> searchItems(String text) {
-        log.info("Поиск предметов по тексту: {}", text);
+        return searchItems(text, null, null);
+    }
+
+    @Override
+    @Transactional
+    public List<ItemDto> searchItems(String text, LocalDateTime from, LocalDateTime to) {
+        log.info("Поиск предметов по тексту: {}, период с {} по {}", text, from, to);
+        if ((from == null) != (to == null) || (from != null && !from.isBefore(to))) {
+            throw new MissingFieldException("Период поиска должен задаваться началом и концом, начало раньше конца");
+        }
         if (text == null || text.trim().isEmpty()) {
             log.info("Пустой поисковый запрос - возврат пустого списка");
             return Collections.emptyList();
         }
-        String searchText = "%" + text.trim().toUpperCase() + "%";
-        List<Item> foundItems = itemRepository.search(searchText);
+        List<Item> foundItems;
+        if (itemSearchIndex.isReady()) {
+            foundItems = itemSearchIndex.search(text);
+        } else {
+            foundItems = itemRepository.search(text.trim().toUpperCase());
+        }
+        Set<Long> busyItemIds = from == null ? Collections.emptySet() : findBusyItemIds(foundItems, from, to);
         List<ItemDto> result = new ArrayList<>();
         for (Item item : foundItems) {
-            result.add(ItemMapper.toItemDto(item));
+            if (!busyItemIds.contains(item.getId())) {
+                result.add(ItemMapper.toItemDto(item));
+            }
         }
         log.info("Найдено предметов: {}", result.size());
         return result;
     }
 
+    private Set<Long> findBusyItemIds(List<Item> items, LocalDateTime from, LocalDateTime to) {
+        Set<Long> busyItemIds = new HashSet<>();
+        List<Long> chunk = new ArrayList<>(BUSY_ITEMS_CHUNK);
+        for (Item item : items) {
+            chunk.add(item.getId());
+            if (chunk.size() == BUSY_ITEMS_CHUNK) {
+                busyItemIds.addAll(bookingRepository.findBusyItemIds(chunk, from, to));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            busyItemIds.addAll(bookingRepository.findBusyItemIds(chunk, from, to));
+        }
+        return busyItemIds;
+    }
+
+    @Override
+    public List<AvailabilityWindowDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Получение свободных окон вещи с ID {} с {} по {}", itemId, from, to);
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new MissingFieldException("Начало периода должно быть раньше его окончания");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new ResourceNotFoundException("Предмет с ID " + itemId + " не найден.");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!to.isAfter(now)) {
+            return new ArrayList<>();
+        }
+        return itemAvailabilityCache.freeWindows(itemId, from.isBefore(now) ? now : from, to);
+    }
+
     @Override
     @Transactional
     public List<CommentDto> getAllCommentsByItemId(Long itemId) {
@@ -231,19 +336,24 @@ public class ItemServiceDB implements ItemService {
         if (commentDto.getText() == null || commentDto.getText().isBlank()) {
             throw new MissingFieldException("Текст комментария не может быть пустым");
         }
-        List<Booking> bookings = bookingRepository
-                .getAllUserBookings(userDto.getId(), itemDto.getId(), LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        boolean hasBooking = !bookingRepository.getAllUserBookings(userDto.getId(), itemDto.getId(), now).isEmpty()
+                || !bookingArchiveRepository.getAllUserBookings(userDto.getId(), itemDto.getId(), now).isEmpty();
 
-        if (bookings.isEmpty()) {
+        if (!hasBooking) {
             throw new MissingFieldException("Чтобы оставить комментарий нужно сначала оформить бронирование");
         }
         Comment comment = CommentMapper.toComment(commentDto, userDto, itemDto);
         Comment savedComment = commentRepository.save(comment);
+        TransactionHooks.afterCommit(() -> itemVersions.itemChanged(itemDto.getId(), itemDto.getOwnerId()));
         return CommentMapper.toCommentDto(savedComment);
     }
 
     private BookerInfoDto getLastBooking(Item item) {
-        Optional<Booking> lastBookingOptional = bookingRepository.getLastBooking(item.getId(), LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Booking> lastBookingOptional = bookingArchiveRepository.getLastBooking(item.getId(), now)
+                .map(BookingMapper::toBooking)
+                .or(() -> bookingRepository.getLastBooking(item.getId(), now));
         if (lastBookingOptional.isPresent()) {
             Booking lastBooking = lastBookingOptional.get();
             return BookingMapper.toBookingInfoDto(lastBooking);
@@ -259,28 +369,4 @@ public class ItemServiceDB implements ItemService {
         }
         return null;
     }
-
-    private BookerInfoDto getLastBooking(List<Booking> bookings) {
-        Booking lastBooking = null;
-        for (Booking booking : bookings) {
-            if (booking.getStart().isBefore(LocalDateTime.now())) {
-                if (lastBooking == null || booking.getStart().isAfter(lastBooking.getStart())) {
-                    lastBooking = booking;
-                }
-            }
-        }
-        return lastBooking != null ? BookingMapper.toBookingInfoDto(lastBooking) : null;
-    }
-
-    private BookerInfoDto getNextBooking(List<Booking> bookings) {
-        Booking nextBooking = null;
-        for (Booking booking : bookings) {
-            if (booking.getStart().isAfter(LocalDateTime.now())) {
-                if (nextBooking == null || booking.getStart().isBefore(nextBooking.getStart())) {
-                    nextBooking = booking;
-                }
-            }
-        }
-        return nextBooking != null ? BookingMapper.toBookingInfoDto(nextBooking) : null;
-    }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import ru.practicum.shareit.exception.ForbiddenOperationException;
 import ru.practicum.shareit.exception.MissingFieldException;
 import ru.practicum.shareit.exception.ResourceNotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
@@ -15,6 +16,7 @@ import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -85,16 +87,30 @@ public class ItemServiceImpl implements ItemService {
         log.info("Получение предметов пользователя с ID {}", userId);
         userService.getUserById(userId);
         List<ItemDto> userItems = new ArrayList<>();
-        List<Item> allItems = itemStorage.getAllItems();
-        for (Item item : allItems) {
-            if (item.getOwner().getId().equals(userId)) {
-                userItems.add(ItemMapper.toItemDto(item));
-            }
+        for (Item item : itemStorage.getItemsByOwner(userId)) {
+            userItems.add(ItemMapper.toItemDto(item));
         }
         log.debug("Найдено {} предметов для пользователя с ID {}", userItems.size(), userId);
         return userItems;
     }
 
+    @Override
+    public List<ItemDto> getUserItems(Long userId, Long afterItemId, int limit) {
+        if (afterItemId == null) {
+            userService.getUserById(userId);
+        }
+        List<ItemDto> userItems = new ArrayList<>();
+        for (Item item : itemStorage.getItemsByOwner(userId, afterItemId, limit)) {
+            userItems.add(ItemMapper.toItemDto(item));
+        }
+        return userItems;
+    }
+
+    @Override
+    public LocalDateTime getNextBookingStartByOwner(Long userId) {
+        return null;
+    }
+
     @Override
     public List<ItemDto> searchItems(String text) {
         log.info("Поиск предметов с текстом: {}", text);
@@ -104,8 +120,7 @@ public class ItemServiceImpl implements ItemService {
             return searchResults;
         }
         String searchText = text.toLowerCase();
-        List<Item> allItems = itemStorage.getAllItems();
-        for (Item item : allItems) {
+        for (Item item : itemStorage.getAvailableItems()) {
             if (Boolean.TRUE.equals(item.getAvailable()) &&
                     (item.getName().toLowerCase().contains(searchText) ||
                             (item.getDescription() != null && item.getDescription().toLowerCase().contains(searchText)))) {
@@ -116,6 +131,30 @@ public class ItemServiceImpl implements ItemService {
         return searchResults;
     }
 
+    @Override
+    public List<ItemDto> searchItems(String text, LocalDateTime from, LocalDateTime to) {
+        if ((from == null) != (to == null) || (from != null && !from.isBefore(to))) {
+            throw new MissingFieldException("Период поиска должен задаваться началом и концом, начало раньше конца");
+        }
+        // Бронирований в памяти нет, поэтому в любом периоде свободны все найденные вещи.
+        return searchItems(text);
+    }
+
+    @Override
+    public List<AvailabilityWindowDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Получение свободных окон вещи с ID {} с {} по {}", itemId, from, to);
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new MissingFieldException("Начало периода должно быть раньше его окончания");
+        }
+        getItemById(itemId);
+        LocalDateTime now = LocalDateTime.now();
+        if (!to.isAfter(now)) {
+            return new ArrayList<>();
+        }
+        // Бронирований в памяти нет, поэтому весь запрошенный период свободен.
+        return List.of(new AvailabilityWindowDto(from.isBefore(now) ? now : from, to));
+    }
+
     @Override
     public List<CommentDto> getAllCommentsByItemId(Long itemId) {
         return List.of();
@@ -4,39 +4,80 @@ import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Repository
 public class InMemoryItemStorage implements ItemStorage {
-    private final Map<Long, Item> items = new HashMap<>();
-    private Long idCounter = 1L;
+    private final Map<Long, Item> items = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<Long>> itemIdsByOwner = new ConcurrentHashMap<>();
+    private final Set<Long> availableItemIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong idCounter = new AtomicLong(1);
 
     @Override
     public Item addItem(Item item) {
-        item.setId(idCounter++);
-        items.put(item.getId(), item);
+        item.setId(idCounter.getAndIncrement());
+        items.compute(item.getId(), (id, previous) -> {
+            addToIndexes(item);
+            return item;
+        });
         return item;
     }
 
     @Override
     public boolean updateItem(Item updatedItem) {
         Long itemId = updatedItem.getId();
-        if (items.containsKey(itemId)) {
-            items.put(itemId, updatedItem);
-            return true;
-        }
-        return false;
+        Item result = items.computeIfPresent(itemId, (id, previous) -> {
+            removeFromIndexes(previous);
+            addToIndexes(updatedItem);
+            return updatedItem;
+        });
+        return result != null;
     }
 
     @Override
     public List<Item> getAllItems() {
-        List<Item> itemList = new ArrayList<>();
-        for (Item item : items.values()) {
-            itemList.add(item);
+        return new ArrayList<>(items.values());
+    }
+
+    @Override
+    public List<Item> getItemsByOwner(Long ownerId) {
+        return resolve(itemIdsByOwner.getOrDefault(ownerId, Collections.emptyNavigableSet()));
+    }
+
+    /**
+     * Страница вещей владельца по возрастанию ID: ID владельца хранятся отсортированными,
+     * поэтому страница начинается сразу после afterItemId без обхода предыдущих.
+     */
+    @Override
+    public List<Item> getItemsByOwner(Long ownerId, Long afterItemId, int limit) {
+        NavigableSet<Long> ids = itemIdsByOwner.getOrDefault(ownerId, Collections.emptyNavigableSet());
+        if (afterItemId != null) {
+            ids = ids.tailSet(afterItemId, false);
         }
-        return itemList;
+        List<Item> page = new ArrayList<>(Math.min(limit, 64));
+        for (Long itemId : ids) {
+            if (page.size() == limit) {
+                break;
+            }
+            Item item = items.get(itemId);
+            if (item != null) {
+                page.add(item);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public List<Item> getAvailableItems() {
+        return resolve(availableItemIds);
     }
 
     @Override
@@ -46,7 +87,47 @@ public class InMemoryItemStorage implements ItemStorage {
 
     @Override
     public boolean deleteItem(Long itemId) {
-        return items.remove(itemId) != null;
+        Item[] removed = new Item[1];
+        items.computeIfPresent(itemId, (id, previous) -> {
+            removeFromIndexes(previous);
+            removed[0] = previous;
+            return null;
+        });
+        return removed[0] != null;
+    }
+
+    private List<Item> resolve(Collection<Long> itemIds) {
+        List<Item> itemList = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            Item item = items.get(itemId);
+            if (item != null) {
+                itemList.add(item);
+            }
+        }
+        return itemList;
     }
 
-}
\ No newline at end of file
+    private void addToIndexes(Item item) {
+        itemIdsByOwner.compute(item.getOwner().getId(), (ownerId, ids) -> {
+            NavigableSet<Long> ownerItemIds = ids == null ? new ConcurrentSkipListSet<>() : ids;
+            ownerItemIds.add(item.getId());
+            return ownerItemIds;
+        });
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            availableItemIds.add(item.getId());
+        } else {
+            availableItemIds.remove(item.getId());
+        }
+    }
+
+    private void removeFromIndexes(Item item) {
+        itemIdsByOwner.compute(item.getOwner().getId(), (ownerId, ids) -> {
+            if (ids == null) {
+                return null;
+            }
+            ids.remove(item.getId());
+            return ids.isEmpty() ? null : ids;
+        });
+        availableItemIds.remove(item.getId());
+    }
+}
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -14,8 +16,20 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "AND i.available = TRUE")
     List<Item> search(String text);
 
+    @Query("select i from Item i join fetch i.owner where i.available = TRUE")
+    List<Item> findAllAvailableWithOwner();
+
+    @Query("select i from Item i join fetch i.owner where i.id in ?1")
+    List<Item> findAllWithOwnerByIdIn(Collection<Long> ids);
+
+    @Query("select i from Item i join fetch i.owner where i.requestId in ?1 order by i.id")
+    List<Item> findAllWithOwnerByRequestIdIn(Collection<Long> requestIds);
+
     @Query("select i from Item i where i.owner.id = ?1")
     List<Item> findAllByOwnerId(Long ownerId);
 
+    @Query("select i from Item i where i.owner.id = ?1 and i.id > ?2 order by i.id")
+    List<Item> findAllByOwnerIdAfter(Long ownerId, Long afterId, Pageable pageable);
+
     Item findByOwnerIdAndId(Long ownerId, Long id);
 }
@@ -0,0 +1,229 @@
+package ru.practicum.shareit.item.storage;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания доступных вещей.
+ * Кандидаты находятся пересечением списков вхождений и затем проверяются на подстроку,
+ * поэтому результат совпадает с поиском через like '%text%'. После коммита вещи индексируются
+ * по строкам, перечитанным из базы, а периодическая перестройка исправляет возможные расхождения.
+ */
+@Component
+public class ItemSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(ItemSearchIndex.class);
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer rebuildTimer;
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.rebuildTimer = Timer.builder("items.search.index.rebuild")
+                .description("Время полного построения поискового индекса вещей")
+                .register(meterRegistry);
+        Gauge.builder("items.search.index.size", this, index -> index.snapshot.documents.size())
+                .description("Количество вещей в поисковом индексе")
+                .register(meterRegistry);
+        Gauge.builder("items.search.index.grams", this, index -> index.snapshot.postings.size())
+                .description("Количество различных триграмм в поисковом индексе")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Строит индекс заново рядом с текущим и подменяет его целиком, поэтому поиск
+     * не видит наполовину построенный индекс.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${shareit.items.search.rebuild-interval:PT1H}",
+            initialDelayString = "${shareit.items.search.rebuild-interval:PT1H}")
+    public synchronized void rebuild() {
+        Snapshot rebuilt = new Snapshot();
+        rebuildTimer.record(() -> {
+            for (Item item : itemRepository.findAllAvailableWithOwner()) {
+                rebuilt.add(new IndexedItem(item));
+            }
+        });
+        snapshot = rebuilt;
+        ready = true;
+        log.info("Поисковый индекс вещей построен: {} вещей, {} триграмм",
+                rebuilt.documents.size(), rebuilt.postings.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Переиндексирует вещи по их текущим строкам в базе. Сущность из транзакции для этого
+     * не годится: хуки параллельных обновлений одной вещи могут выполниться в порядке,
+     * обратном коммитам, и тогда в индексе остался бы старый снимок. Строки читаются
+     * в новой транзакции под блокировкой индекса, поэтому последним применяется самое
+     * свежее состояние.
+     */
+    public synchronized void reindex(Collection<Long> itemIds) {
+        List<Item> items = transactionTemplate.execute(status -> itemRepository.findAllWithOwnerByIdIn(itemIds));
+        Set<Long> missing = new HashSet<>(itemIds);
+        for (Item item : items) {
+            missing.remove(item.getId());
+            snapshot.remove(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                snapshot.add(new IndexedItem(item));
+            }
+        }
+        missing.forEach(snapshot::remove);
+    }
+
+    public synchronized void removeByOwner(Long ownerId) {
+        Snapshot current = snapshot;
+        for (IndexedItem document : current.documents.values()) {
+            if (document.ownerId.equals(ownerId)) {
+                current.remove(document.id);
+            }
+        }
+    }
+
+    public List<Item> search(String text) {
+        String query = normalize(text.trim());
+        Snapshot current = snapshot;
+        List<Item> result = new ArrayList<>();
+        for (Long id : current.candidates(query)) {
+            IndexedItem document = current.documents.get(id);
+            if (document != null && document.matches(query)) {
+                result.add(document.toItem());
+            }
+        }
+        result.sort(Comparator.comparing(Item::getId));
+        return result;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, IndexedItem> documents = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+        private Iterable<Long> candidates(String query) {
+            if (query.length() < GRAM) {
+                return documents.keySet();
+            }
+            List<Set<Long>> lists = new ArrayList<>();
+            for (String gram : grams(query)) {
+                Set<Long> posting = postings.get(gram);
+                if (posting == null) {
+                    return List.of();
+                }
+                lists.add(posting);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            List<Long> intersection = new ArrayList<>();
+            Set<Long> smallest = lists.get(0);
+            for (Long id : smallest) {
+                boolean inAll = true;
+                for (int i = 1; i < lists.size() && inAll; i++) {
+                    inAll = lists.get(i).contains(id);
+                }
+                if (inAll) {
+                    intersection.add(id);
+                }
+            }
+            return intersection;
+        }
+
+        private void add(IndexedItem document) {
+            documents.put(document.id, document);
+            for (String gram : document.grams()) {
+                postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(document.id);
+            }
+        }
+
+        private void remove(Long itemId) {
+            IndexedItem document = documents.remove(itemId);
+            if (document == null) {
+                return;
+            }
+            for (String gram : document.grams()) {
+                postings.computeIfPresent(gram, (key, ids) -> {
+                    ids.remove(itemId);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    private static final class IndexedItem {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Long ownerId;
+        private final Long requestId;
+        private final String normalizedName;
+        private final String normalizedDescription;
+
+        private IndexedItem(Item item) {
+            this.id = item.getId();
+            this.name = item.getName();
+            this.description = item.getDescription();
+            this.ownerId = item.getOwner().getId();
+            this.requestId = item.getRequestId();
+            this.normalizedName = normalize(name);
+            this.normalizedDescription = normalize(description);
+        }
+
+        private boolean matches(String query) {
+            return normalizedName.contains(query) || normalizedDescription.contains(query);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(normalizedName);
+            grams.addAll(ItemSearchIndex.grams(normalizedDescription));
+            return grams;
+        }
+
+        private Item toItem() {
+            User owner = new User();
+            owner.setId(ownerId);
+            return new Item(id, name, description, true, owner, requestId);
+        }
+    }
+}
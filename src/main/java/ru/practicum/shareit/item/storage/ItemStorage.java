@@ -11,6 +11,12 @@ public interface ItemStorage {
 
     List<Item> getAllItems();
 
+    List<Item> getItemsByOwner(Long ownerId);
+
+    List<Item> getItemsByOwner(Long ownerId, Long afterItemId, int limit);
+
+    List<Item> getAvailableItems();
+
     Item getItemById(Long itemId);
 
     boolean deleteItem(Long itemId);
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.storage;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версии вещей и списков вещей владельцев для ETag. Версии растут после коммита любого
+ * изменения, которое видно в ответе, а поколение меняется при старте и при изменениях,
+ * которые нельзя привязать к конкретной вещи (переименование или удаление пользователя).
+ * Список владельца зависит еще и от времени: когда начинается ближайшее бронирование,
+ * меняются lastBooking и nextBooking, поэтому тег списка действует только до этого момента.
+ * Счетчики хранятся в памяти одного экземпляра приложения.
+ */
+@Component
+public class ItemVersions {
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Long> itemVersions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> ownerVersions = new ConcurrentHashMap<>();
+    private final Map<Long, OwnerItemsTag> ownerTags = new ConcurrentHashMap<>();
+    private volatile String generation = newGeneration();
+
+    /**
+     * Тег вещи. Вызывается до загрузки вещи: если изменение закоммитится во время загрузки,
+     * ответ получит старый тег и следующий запрос просто загрузит вещь заново.
+     */
+    public String itemTag(Long itemId) {
+        return '"' + generation + "-" + itemVersions.getOrDefault(itemId, 0L) + '"';
+    }
+
+    /**
+     * Текущее состояние списка вещей владельца, снимается до загрузки списка.
+     */
+    public String ownerItemsState(Long ownerId) {
+        return generation + "-" + ownerVersions.getOrDefault(ownerId, 0L);
+    }
+
+    /**
+     * Тег списка вещей владельца, если список уже строился в текущем состоянии
+     * и с тех пор не началось ни одно бронирование из него, иначе null.
+     */
+    public String ownerItemsTag(Long ownerId) {
+        OwnerItemsTag tag = ownerTags.get(ownerId);
+        if (tag == null || !tag.state().equals(ownerItemsState(ownerId))) {
+            return null;
+        }
+        if (tag.validUntil() != null && !LocalDateTime.now().isBefore(tag.validUntil())) {
+            return null;
+        }
+        return tag.value();
+    }
+
+    /**
+     * Запоминает тег списка, построенного в состоянии state. validUntil — начало ближайшего
+     * подтвержденного бронирования вещей владельца или null, если таких бронирований нет.
+     */
+    public String recordOwnerItems(Long ownerId, String state, LocalDateTime validUntil) {
+        String value = '"' + state
+                + (validUntil == null ? "" : "-" + validUntil.toInstant(ZoneOffset.UTC).toEpochMilli()) + '"';
+        ownerTags.put(ownerId, new OwnerItemsTag(state, validUntil, value));
+        return value;
+    }
+
+    public void itemChanged(Long itemId, Long ownerId) {
+        itemVersions.put(itemId, sequence.incrementAndGet());
+        ownerChanged(ownerId);
+    }
+
+    public void ownerChanged(Long ownerId) {
+        ownerVersions.put(ownerId, sequence.incrementAndGet());
+        ownerTags.remove(ownerId);
+    }
+
+    public void invalidateAll() {
+        generation = newGeneration();
+        ownerTags.clear();
+    }
+
+    private static String newGeneration() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+    }
+
+    private record OwnerItemsTag(String state, LocalDateTime validUntil, String value) {
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.pagination;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Пишет список в ответ JSON-массивом по страницам: следующая страница загружается только
+ * после того, как предыдущая записана и сброшена клиенту, поэтому в памяти одновременно
+ * находится не больше одной страницы. Ошибка на первой странице отдается обычным ответом
+ * об ошибке. Если часть массива уже ушла клиенту, поток обрывается без закрывающей скобки,
+ * чтобы обрезанный ответ нельзя было принять за полный.
+ */
+@Component
+public class JsonArrayStreamer {
+    private static final Logger log = LoggerFactory.getLogger(JsonArrayStreamer.class);
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final int pageSize;
+
+    public JsonArrayStreamer(ObjectMapper objectMapper,
+                             EntityManager entityManager,
+                             @Value("${shareit.streaming.page-size:500}") int pageSize) {
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Источник страниц: по последнему элементу предыдущей страницы (null для первой)
+     * возвращает не больше limit следующих элементов.
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        List<T> next(T last, int limit);
+    }
+
+    public <T> void write(HttpServletResponse response, PageSource<T> source) throws IOException {
+        List<T> page = source.next(null, pageSize);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        long written = 0;
+        try {
+            generator.writeStartArray();
+            while (true) {
+                for (T value : page) {
+                    generator.writeObject(value);
+                }
+                written += page.size();
+                generator.flush();
+                if (page.size() < pageSize) {
+                    break;
+                }
+                clearPersistenceContext();
+                page = source.next(page.get(page.size() - 1), pageSize);
+            }
+            generator.writeEndArray();
+            generator.close();
+        } catch (IOException | RuntimeException e) {
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+                throw e;
+            }
+            log.error("Запись JSON-массива прервана после {} элементов: {}", written, e.getMessage());
+            throw new IllegalStateException("Запись JSON-массива прервана после " + written + " элементов", e);
+        }
+    }
+
+    private void clearPersistenceContext() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.clear();
+        }
+    }
+}
@@ -1,13 +1,69 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.Create;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final UserService userService;
+    private final ItemRequestService itemRequestService;
+
+    public ItemRequestController(@Qualifier("userServiceDB") UserService userService,
+                                 ItemRequestService itemRequestService) {
+        this.userService = userService;
+        this.itemRequestService = itemRequestService;
+    }
+
+    @PostMapping
+    public ItemRequestDto create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                 @Validated({Create.class}) @RequestBody ItemRequestDto itemRequestDto) {
+        UserDto userDto = userService.getUserById(userId);
+        return itemRequestService.create(userDto, itemRequestDto);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ItemRequestDto>> getOwn(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestParam(value = "cursor", required = false) String cursor,
+                                                       @RequestParam(value = "limit", required = false) Integer limit) {
+        UserDto userDto = userService.getUserById(userId);
+        return toPage(itemRequestService.findOwn(userDto.getId(), KeysetCursor.decode(cursor), limit), limit);
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<List<ItemRequestDto>> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestParam(value = "cursor", required = false) String cursor,
+                                                       @RequestParam(value = "limit", required = false) Integer limit) {
+        UserDto userDto = userService.getUserById(userId);
+        return toPage(itemRequestService.findOthers(userDto.getId(), KeysetCursor.decode(cursor), limit), limit);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto getById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                  @PathVariable("requestId") Long requestId) {
+        userService.getUserById(userId);
+        return itemRequestService.getById(requestId);
+    }
+
+    private static ResponseEntity<List<ItemRequestDto>> toPage(List<ItemRequestDto> requests, Integer limit) {
+        if (limit == null || requests.size() < limit) {
+            return ResponseEntity.ok(requests);
+        }
+        ItemRequestDto last = requests.get(requests.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, KeysetCursor.after(last.getCreated(), last.getId()).encode())
+                .body(requests);
+    }
 }
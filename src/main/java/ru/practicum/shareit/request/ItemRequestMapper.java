@@ -0,0 +1,21 @@
+package ru.practicum.shareit.request;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+public class ItemRequestMapper {
+
+    public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest, List<ItemAnswerDto> items) {
+        return new ItemRequestDto(itemRequest.getId(),
+                itemRequest.getDescription(),
+                itemRequest.getCreated(),
+                items);
+    }
+
+    public static ItemAnswerDto toItemAnswerDto(Item item) {
+        return new ItemAnswerDto(item.getId(), item.getName(), item.getOwner().getId());
+    }
+}
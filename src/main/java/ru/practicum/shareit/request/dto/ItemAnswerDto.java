@@ -0,0 +1,10 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.Value;
+
+@Value
+public class ItemAnswerDto {
+    Long id;
+    String name;
+    Long ownerId;
+}
@@ -1,8 +1,17 @@
 package ru.practicum.shareit.request.dto;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import jakarta.validation.constraints.NotBlank;
+import lombok.Value;
+import ru.practicum.shareit.Create;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
 public class ItemRequestDto {
+    Long id;
+    @NotBlank(groups = {Create.class})
+    String description;
+    LocalDateTime created;
+    List<ItemAnswerDto> items;
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDto create(UserDto userDto, ItemRequestDto itemRequestDto);
+
+    ItemRequestDto getById(Long requestId);
+
+    List<ItemRequestDto> findOwn(Long userId, KeysetCursor cursor, Integer limit);
+
+    List<ItemRequestDto> findOthers(Long userId, KeysetCursor cursor, Integer limit);
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.MissingFieldException;
+import ru.practicum.shareit.exception.ResourceNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запросы вещей. Ответы на страницу запросов загружаются одним запросом по списку ID
+ * и раскладываются по запросам в памяти, поэтому число обращений к базе не зависит
+ * от размера страницы.
+ */
+@Service
+@RequiredArgsConstructor
+public class ItemRequestServiceDB implements ItemRequestService {
+    private static final Logger log = LoggerFactory.getLogger(ItemRequestServiceDB.class);
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+
+    @Override
+    @Transactional
+    public ItemRequestDto create(UserDto userDto, ItemRequestDto itemRequestDto) {
+        log.info("Создание запроса вещи пользователем с ID {}", userDto.getId());
+        if (itemRequestDto.getDescription() == null || itemRequestDto.getDescription().isBlank()) {
+            throw new MissingFieldException("Поле 'description' не может быть пустым.");
+        }
+        ItemRequest itemRequest = itemRequestRepository.save(ItemRequest.builder()
+                .description(itemRequestDto.getDescription())
+                .requestor(UserMapper.toUser(userDto))
+                .created(LocalDateTime.now())
+                .build());
+        log.info("Запрос вещи с ID {} успешно создан", itemRequest.getId());
+        return ItemRequestMapper.toItemRequestDto(itemRequest, new ArrayList<>());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRequestDto getById(Long requestId) {
+        log.info("Получение запроса вещи с ID {}", requestId);
+        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new ResourceNotFoundException("Запрос вещи с ID " + requestId + " не найден."));
+        return withAnswers(List.of(itemRequest)).get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> findOwn(Long userId, KeysetCursor cursor, Integer limit) {
+        log.info("Получение запросов вещей пользователя с ID {}", userId);
+        return withAnswers(itemRequestRepository.findOwnRequests(userId,
+                cursor.getPosition(), cursor.getId(), toPageable(limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> findOthers(Long userId, KeysetCursor cursor, Integer limit) {
+        log.info("Получение запросов вещей других пользователей для пользователя с ID {}", userId);
+        return withAnswers(itemRequestRepository.findOtherRequests(userId,
+                cursor.getPosition(), cursor.getId(), toPageable(limit)));
+    }
+
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = itemRequests.stream().map(ItemRequest::getId).toList();
+        Map<Long, List<ItemAnswerDto>> answers = new HashMap<>();
+        for (Item item : itemRepository.findAllWithOwnerByRequestIdIn(requestIds)) {
+            answers.computeIfAbsent(item.getRequestId(), id -> new ArrayList<>())
+                    .add(ItemRequestMapper.toItemAnswerDto(item));
+        }
+        List<ItemRequestDto> result = new ArrayList<>(itemRequests.size());
+        for (ItemRequest itemRequest : itemRequests) {
+            result.add(ItemRequestMapper.toItemRequestDto(itemRequest,
+                    answers.getOrDefault(itemRequest.getId(), new ArrayList<>())));
+        }
+        return result;
+    }
+
+    private Pageable toPageable(Integer limit) {
+        if (limit == null) {
+            return Pageable.unpaged();
+        }
+        if (limit <= 0) {
+            throw new MissingFieldException("Параметр limit должен быть положительным");
+        }
+        return PageRequest.of(0, limit);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.request.storage;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    String AFTER_CURSOR = "AND (r.created < :cursorCreated OR (r.created = :cursorCreated AND r.id < :cursorId)) ";
+    String KEYSET_ORDER = "ORDER BY r.created DESC, r.id DESC";
+
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id = :requestorId " +
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<ItemRequest> findOwnRequests(Long requestorId,
+                                      LocalDateTime cursorCreated, Long cursorId, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id <> :requestorId " +
+            AFTER_CURSOR +
+            KEYSET_ORDER)
+    List<ItemRequest> findOtherRequests(Long requestorId,
+                                        LocalDateTime cursorCreated, Long cursorId, Pageable pageable);
+}
@@ -6,12 +6,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.TransactionHooks;
 import ru.practicum.shareit.exception.ForbiddenOperationException;
 import ru.practicum.shareit.exception.ResourceNotFoundException;
 import ru.practicum.shareit.exception.SameEmailException;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemVersions;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserCache;
+import ru.practicum.shareit.user.storage.UserIdFilter;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.List;
@@ -24,6 +29,10 @@ import java.util.stream.Collectors;
 public class UserServiceDB implements UserService {
     private static final Logger log = LoggerFactory.getLogger(UserServiceDB.class);
     private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemVersions itemVersions;
+    private final UserCache userCache;
+    private final UserIdFilter userIdFilter;
 
     @Override
     @Transactional
@@ -32,6 +41,8 @@ public class UserServiceDB implements UserService {
         validateUser(userDto);
         User user = UserMapper.toUser(userDto);
         User createdUser = userRepository.save(user);
+        evictAfterCommit(createdUser.getId());
+        TransactionHooks.afterCommit(() -> userIdFilter.add(createdUser.getId()));
         log.info("Пользователь создан: {}", createdUser.getEmail());
         return UserMapper.toUserDto(createdUser);
     }
@@ -53,28 +64,32 @@ public class UserServiceDB implements UserService {
         }
         User existingUser = existingUserOptional.get();
         User updatedUser = userRepository.save(existingUser);
+        evictAfterCommit(userId);
         if (userDto.getEmail() != null) {
             existingUser.setEmail(userDto.getEmail());
         }
         if (userDto.getName() != null) {
             existingUser.setName(userDto.getName());
+            TransactionHooks.afterCommit(itemVersions::invalidateAll);
         }
         log.info("Пользователь обновлен: {}", updatedUser.getId());
         return UserMapper.toUserDto(updatedUser);
     }
 
     @Override
-    @Transactional
     public UserDto getUserById(Long userId) {
         log.info("Получение пользователя по ID: {}", userId);
 
-        Optional<User> user = userRepository.findById(userId);
+        if (!userIdFilter.mightExist(userId)) {
+            throw new ForbiddenOperationException("Пользователь с ID " + userId + " не найден.");
+        }
+        Optional<UserDto> user = userCache.get(userId, id -> userRepository.findById(id).map(UserMapper::toUserDto));
         if (user.isEmpty()) {
             throw new ForbiddenOperationException("Пользователь с ID " + userId + " не найден.");
         }
 
         log.info("Пользователь найден: {}", user);
-        return UserMapper.toUserDto(user.orElse(null));
+        return user.get();
     }
 
     @Override
@@ -97,9 +112,19 @@ public class UserServiceDB implements UserService {
             throw new ResourceNotFoundException("Пользователь с ID " + userId + " не найден.");
         }
         userRepository.deleteById(userId);
+        evictAfterCommit(userId);
+        TransactionHooks.afterCommit(() -> {
+            itemSearchIndex.removeByOwner(userId);
+            itemVersions.invalidateAll();
+        });
         log.info("Пользователь с ID {} успешно удален", userId);
     }
 
+    private void evictAfterCommit(Long userId) {
+        userCache.invalidate(userId);
+        TransactionHooks.afterCommit(() -> userCache.invalidate(userId));
+    }
+
     private void validateUser(UserDto userDto) {
         if (userRepository.existsByEmailAndIdNot(userDto.getEmail(), userDto.getId())) {
             log.error("Адрес электронной почты {} уже используется другим пользователем", userDto.getEmail());
@@ -1,20 +1,27 @@
 package ru.practicum.shareit.user.storage;
 
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.exception.SameEmailException;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Repository
 public class InMemoryUserStorage implements UserStorage {
-    private final Map<Long, User> users = new HashMap<>();
-    private Long idCounter = 1L;
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
+    private final AtomicLong idCounter = new AtomicLong(1);
 
     @Override
     public User addUser(User user) {
-        user.setId(idCounter++);
-        users.put(user.getId(), user);
+        Long userId = idCounter.getAndIncrement();
+        claimEmail(user.getEmail(), userId);
+        user.setId(userId);
+        users.put(userId, user);
         return user;
     }
 
@@ -25,36 +32,55 @@ public class InMemoryUserStorage implements UserStorage {
 
     @Override
     public User updateUser(Long userId, User updatedUser) {
-        if (!users.containsKey(userId)) {
-            return null;
-        }
-        User user = users.get(userId);
-        if (updatedUser.getName() != null) {
-            user.setName(updatedUser.getName());
-        }
-        if (updatedUser.getEmail() != null) {
-            user.setEmail(updatedUser.getEmail());
-        }
-        return user;
+        return users.computeIfPresent(userId, (id, user) -> {
+            if (updatedUser.getEmail() != null) {
+                String previousEmail = normalize(user.getEmail());
+                String newEmail = normalize(updatedUser.getEmail());
+                if (!newEmail.equals(previousEmail)) {
+                    claimEmail(updatedUser.getEmail(), userId);
+                    userIdsByEmail.remove(previousEmail, userId);
+                }
+                user.setEmail(updatedUser.getEmail());
+            }
+            if (updatedUser.getName() != null) {
+                user.setName(updatedUser.getName());
+            }
+            return user;
+        });
     }
 
     @Override
     public boolean deleteUser(Long userId) {
-        return users.remove(userId) != null;
+        User removed = users.remove(userId);
+        if (removed == null) {
+            return false;
+        }
+        userIdsByEmail.remove(normalize(removed.getEmail()), userId);
+        return true;
     }
 
     @Override
     public Map<Long, User> getAllUsers() {
-        return users;
+        return Collections.unmodifiableMap(users);
     }
 
     @Override
     public boolean emailExists(String email, Long userId) {
-        for (User user : users.values()) {
-            if (user.getEmail().equalsIgnoreCase(email) && !user.getId().equals(userId)) {
-                return true;
-            }
+        if (email == null) {
+            return false;
+        }
+        Long ownerId = userIdsByEmail.get(normalize(email));
+        return ownerId != null && !ownerId.equals(userId);
+    }
+
+    private void claimEmail(String email, Long userId) {
+        Long ownerId = userIdsByEmail.putIfAbsent(normalize(email), userId);
+        if (ownerId != null && !ownerId.equals(userId)) {
+            throw new SameEmailException("Email уже используется другим пользователем");
         }
-        return false;
     }
-}
\ No newline at end of file
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
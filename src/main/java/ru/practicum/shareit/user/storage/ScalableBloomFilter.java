@@ -0,0 +1,124 @@
+package ru.practicum.shareit.user.storage;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Масштабируемый фильтр Блума для идентификаторов типа long. Когда очередной слой заполнен
+ * до расчетной емкости, добавляется слой вдвое больше с вдвое меньшей долей ложных
+ * срабатываний, поэтому общая доля не превышает заданной при любом числе элементов.
+ * Проверки не блокируются, добавления сериализуются.
+ */
+final class ScalableBloomFilter {
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final int GROWTH_FACTOR = 2;
+
+    private final List<Slice> slices = new CopyOnWriteArrayList<>();
+    private volatile long size;
+
+    ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        slices.add(new Slice(Math.max(initialCapacity, 64), falsePositiveRate * (1 - TIGHTENING_RATIO)));
+    }
+
+    boolean mightContain(long value) {
+        long hash = mix(value);
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized void add(long value) {
+        long hash = mix(value);
+        Slice current = slices.get(slices.size() - 1);
+        if (current.count >= current.capacity) {
+            current = new Slice(current.capacity * GROWTH_FACTOR, current.falsePositiveRate * TIGHTENING_RATIO);
+            slices.add(current);
+        }
+        current.add(hash);
+        size++;
+    }
+
+    long size() {
+        return size;
+    }
+
+    long sizeInBytes() {
+        long bytes = 0;
+        for (Slice slice : slices) {
+            bytes += (long) slice.bits.length() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Оценка текущей доли ложных срабатываний по фактической заполненности слоев.
+     */
+    double expectedFalsePositiveRate() {
+        double miss = 1;
+        for (Slice slice : slices) {
+            miss *= 1 - Math.pow((double) slice.bitCount / slice.bitSize, slice.hashFunctions);
+        }
+        return 1 - miss;
+    }
+
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Slice {
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitSize;
+        private final int hashFunctions;
+        private final AtomicLongArray bits;
+        private long count;
+        private volatile long bitCount;
+
+        private Slice(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long words = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)) / Long.SIZE);
+            this.bits = new AtomicLongArray(Math.toIntExact(Math.max(words, 1)));
+            this.bitSize = (long) bits.length() * Long.SIZE;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / capacity * Math.log(2)));
+        }
+
+        private boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashFunctions; i++) {
+                long bit = index(h1 + i * h2);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            long changed = 0;
+            for (int i = 1; i <= hashFunctions; i++) {
+                long bit = index(h1 + i * h2);
+                long mask = 1L << bit;
+                if ((bits.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m) & mask) == 0) {
+                    changed++;
+                }
+            }
+            bitCount += changed;
+            count++;
+        }
+
+        private long index(int combined) {
+            return (combined & Integer.MAX_VALUE) % bitSize;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.user.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Кэш пользователей по id между запросами. Отсутствие пользователя тоже кэшируется,
+ * но на более короткое время.
+ */
+@Component
+public class UserCache {
+    private final Cache<Long, Optional<UserDto>> cache;
+
+    public UserCache(@Value("${shareit.users.cache.ttl:PT5M}") Duration ttl,
+                     @Value("${shareit.users.cache.negative-ttl:PT10S}") Duration negativeTtl,
+                     @Value("${shareit.users.cache.max-size:10000}") long maxSize,
+                     MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, Optional<UserDto>>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, Optional<UserDto> user, long currentTime) {
+                        return user.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, Optional<UserDto> user,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(userId, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, Optional<UserDto> user,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public Optional<UserDto> get(Long userId, Function<Long, Optional<UserDto>> loader) {
+        return cache.get(userId, loader).map(UserCache::copy);
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    private static UserDto copy(UserDto user) {
+        return UserDto.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+}
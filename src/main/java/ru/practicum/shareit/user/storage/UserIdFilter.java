@@ -0,0 +1,135 @@
+package ru.practicum.shareit.user.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Фильтр Блума по идентификаторам существующих пользователей. Если фильтр отвечает «нет»
+ * на ID не больше максимального при последней перестройке, пользователя точно нет и в базу
+ * можно не ходить. Большие ID фильтр пропускает: их могли создать другие экземпляры
+ * приложения. Новые пользователи добавляются после коммита, а удаленные вычищаются
+ * периодической перестройкой. До первой постройки фильтр пропускает все идентификаторы.
+ */
+@Component
+public class UserIdFilter {
+    private static final Logger log = LoggerFactory.getLogger(UserIdFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final Counter rejectedCounter;
+    private final Timer rebuildTimer;
+    private final Object swapLock = new Object();
+    private volatile Snapshot snapshot;
+    private ScalableBloomFilter building;
+
+    public UserIdFilter(UserRepository userRepository,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${shareit.users.filter.expected-users:100000}") long expectedUsers,
+                        @Value("${shareit.users.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rejectedCounter = Counter.builder("users.filter.rejected")
+                .description("Количество запросов с несуществующим ID пользователя, отклоненных фильтром")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("users.filter.rebuild")
+                .description("Время полного построения фильтра ID пользователей")
+                .register(meterRegistry);
+        gauge(meterRegistry, "users.filter.size", "Количество ID в фильтре пользователей",
+                ScalableBloomFilter::size);
+        gauge(meterRegistry, "users.filter.bytes", "Объем памяти фильтра пользователей в байтах",
+                ScalableBloomFilter::sizeInBytes);
+        gauge(meterRegistry, "users.filter.false-positive-rate",
+                "Оценка доли ложных срабатываний фильтра пользователей по заполненности",
+                ScalableBloomFilter::expectedFalsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${shareit.users.filter.rebuild-interval:PT15M}",
+            initialDelayString = "${shareit.users.filter.rebuild-interval:PT15M}")
+    public synchronized void rebuild() {
+        ScalableBloomFilter rebuilt = new ScalableBloomFilter(expectedUsers, falsePositiveRate);
+        synchronized (swapLock) {
+            building = rebuilt;
+        }
+        long[] maxId = {0};
+        try {
+            rebuildTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Long> ids = userRepository.streamAllIds()) {
+                    ids.forEach(id -> {
+                        rebuilt.add(id);
+                        maxId[0] = Math.max(maxId[0], id);
+                    });
+                }
+            }));
+        } catch (RuntimeException e) {
+            synchronized (swapLock) {
+                building = null;
+            }
+            throw e;
+        }
+        synchronized (swapLock) {
+            snapshot = new Snapshot(rebuilt, maxId[0]);
+            building = null;
+        }
+        log.info("Фильтр ID пользователей построен: {} ID до {}, {} байт, оценка ложных срабатываний {}",
+                rebuilt.size(), maxId[0], rebuilt.sizeInBytes(), rebuilt.expectedFalsePositiveRate());
+    }
+
+    public boolean mightExist(Long userId) {
+        Snapshot current = snapshot;
+        if (current == null || userId == null || userId > current.maxId()
+                || current.filter().mightContain(userId)) {
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    /**
+     * Добавляет ID под той же блокировкой, под которой перестройка публикует новый фильтр,
+     * поэтому ID попадает либо в строящийся фильтр, либо в уже опубликованный.
+     */
+    public void add(Long userId) {
+        synchronized (swapLock) {
+            if (snapshot != null) {
+                snapshot.filter().add(userId);
+            }
+            if (building != null) {
+                building.add(userId);
+            }
+        }
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String name, String description,
+                       ToDoubleFunction<ScalableBloomFilter> value) {
+        Gauge.builder(name, this, userIdFilter -> {
+                    Snapshot current = userIdFilter.snapshot;
+                    return current == null ? Double.NaN : value.applyAsDouble(current.filter());
+                })
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    private record Snapshot(ScalableBloomFilter filter, long maxId) {
+    }
+}
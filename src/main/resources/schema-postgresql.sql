@@ -0,0 +1,19 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_waiting ON bookings (booker_id, start_date DESC, id DESC)
+  WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_rejected ON bookings (booker_id, start_date DESC, id DESC)
+  WHERE status = 'REJECTED';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_waiting ON bookings (item_id, start_date DESC, id DESC)
+  WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_rejected ON bookings (item_id, start_date DESC, id DESC)
+  WHERE status = 'REJECTED';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_approved ON bookings (item_id, start_date)
+  WHERE status = 'APPROVED';
+
+SELECT setval('bookings_seq', max_id)
+FROM (SELECT GREATEST(COALESCE((SELECT MAX(id) FROM bookings), 0),
+                      COALESCE((SELECT MAX(id) FROM bookings_archive), 0)) AS max_id) ids
+WHERE max_id >= (SELECT last_value FROM bookings_seq);
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.repositary.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пакетное создание бронирований должно читать интервалы всех вещей одним запросом
+ * и отправлять вставки одним JDBC-пакетом. Промежуточный SELECT по каждой вещи
+ * вызывал бы автосброс и дробил пакет, а подготовка инструкции вставки — повторялась.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-batch;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.bookings.events.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.booking.BookingBatchInsertTests$CapturingInspector"
+})
+class BookingBatchInsertTests {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+    private static final int ITEMS = 3;
+    private static final int BOOKINGS = 12;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User booker;
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        User owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker@mail.ru"));
+        items.clear();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(new Item(null, "item" + i, "description" + i, true, owner, null)));
+        }
+        STATEMENTS.clear();
+    }
+
+    @Test
+    void createBatchLoadsIntervalsOnceAndBatchesInserts() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        List<BookingCreateDto> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(new BookingCreateDto(items.get(i % ITEMS).getId(), start.plusDays(i),
+                    start.plusDays(i).plusHours(1)));
+        }
+
+        List<BookingBatchResultDto> results = bookingService.createBatch(UserMapper.toUserDto(booker), bookings);
+
+        for (BookingBatchResultDto result : results) {
+            assertTrue(result.isSuccess(), "Бронирование не создано: " + result.getError());
+        }
+        assertEquals(1, count("select ") - count("select next value"),
+                "Лишние запросы при пакетном создании:\n" + String.join("\n", STATEMENTS));
+        assertEquals(1, count("insert into bookings ("),
+                "Вставки бронирований не попали в один пакет:\n" + String.join("\n", STATEMENTS));
+        assertEquals(BOOKINGS, bookingRepository.count());
+    }
+
+    private long count(String prefix) {
+        return STATEMENTS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim())
+                .filter(sql -> sql.startsWith(prefix) && !sql.contains(" from items "))
+                .count();
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.event.BookingEventListener;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.repositary.BookingEventRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Упавшая пачка должна доставляться повторно сразу, а не после перемотки ретранслятора,
+ * и события одного бронирования должны приходить подписчикам в порядке записи.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-events;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.bookings.events.poll-interval=PT0.1S",
+        "shareit.bookings.events.rewind-interval=PT1H",
+        "shareit.bookings.events.consumers=4"
+})
+class BookingEventPipelineTests {
+    private static final int FAILURES = 3;
+    private static final AtomicInteger CALLS = new AtomicInteger();
+    private static final List<BookingEvent> DELIVERED = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void redeliversFailedBatchBeforeRewindInBookingOrder() throws InterruptedException {
+        User owner = userRepository.save(new User(null, "owner", "events-owner@mail.ru"));
+        User booker = userRepository.save(new User(null, "booker", "events-booker@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "description", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        BookingResponseDto booking = bookingService.create(UserMapper.toUserDto(booker), ItemMapper.toItemDto(item),
+                new BookingCreateDto(item.getId(), start, start.plusHours(2)));
+        bookingService.approveByOwner(owner.getId(), booking.getId(), true);
+
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (bookingEventRepository.count() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(0, bookingEventRepository.count(), "События не доставлены до перемотки");
+        assertTrue(CALLS.get() > FAILURES);
+        List<BookingStatus> statuses = DELIVERED.stream()
+                .filter(event -> event.getBookingId().equals(booking.getId()))
+                .map(BookingEvent::getStatus)
+                .toList();
+        assertEquals(List.of(BookingStatus.WAITING, BookingStatus.APPROVED), statuses);
+    }
+
+    @TestConfiguration
+    static class FlakyListenerConfig {
+        @Bean
+        BookingEventListener flakyListener() {
+            return events -> {
+                if (CALLS.incrementAndGet() <= FAILURES) {
+                    throw new IllegalStateException("Подписчик недоступен");
+                }
+                DELIVERED.addAll(events);
+            };
+        }
+    }
+}
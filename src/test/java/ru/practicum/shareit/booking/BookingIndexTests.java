@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.repositary.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет по EXPLAIN в H2, что запросы списков бронирований, ближайших бронирований
+ * и комментариев используют индексы, а не полный просмотр таблиц. H2 сам индексирует
+ * внешние ключи, а PostgreSQL нет, поэтому такой индекс засчитывается, только если
+ * в схеме есть явный индекс с тем же первым столбцом.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-indexes;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.booking.BookingIndexTests$CapturingInspector"
+})
+class BookingIndexTests {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+    private static final Pattern PLAN_INDEX = Pattern.compile("/\\* PUBLIC\\.([A-Z0-9_]+)[: ]");
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, String> leadingColumns = new HashMap<>();
+    private final Set<String> generatedIndexes = new HashSet<>();
+    private final Set<String> explicitLeadingColumns = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.query("SELECT INDEX_NAME, TABLE_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                        + "WHERE TABLE_SCHEMA = 'PUBLIC' AND ORDINAL_POSITION = 1",
+                (ResultSet resultSet) -> {
+                    leadingColumns.put(resultSet.getString(1), resultSet.getString(2) + "." + resultSet.getString(3));
+                });
+        jdbcTemplate.query("SELECT INDEX_NAME, IS_GENERATED FROM INFORMATION_SCHEMA.INDEXES "
+                        + "WHERE TABLE_SCHEMA = 'PUBLIC' AND INDEX_TYPE_NAME = 'INDEX'",
+                (ResultSet resultSet) -> {
+                    String index = resultSet.getString(1);
+                    if (resultSet.getBoolean(2)) {
+                        generatedIndexes.add(index);
+                    } else {
+                        explicitLeadingColumns.add(leadingColumns.get(index));
+                    }
+                });
+        STATEMENTS.clear();
+    }
+
+    @Test
+    void bookerStateQueriesUseIndexes() {
+        for (State state : State.values()) {
+            bookingService.findAllByBooker(1L, state, KeysetCursor.FIRST, 10);
+            assertIndexed();
+        }
+    }
+
+    @Test
+    void ownerStateQueriesUseIndexes() {
+        for (State state : State.values()) {
+            bookingService.findAllByOwner(1L, state, KeysetCursor.FIRST, 10);
+            assertIndexed();
+        }
+    }
+
+    @Test
+    void itemBookingAndCommentQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.getLastBooking(1L, now);
+        assertIndexed();
+        bookingRepository.getNextBooking(1L, now);
+        assertIndexed();
+        bookingRepository.findLastAndNextApprovedBookingsForItems(List.of(1L, 2L), now);
+        assertIndexed();
+        bookingRepository.findBusyItemIds(List.of(1L, 2L), now, now.plusDays(1));
+        assertIndexed();
+        commentRepository.findAllByItemId(1L);
+        assertIndexed();
+    }
+
+    private void assertIndexed() {
+        assertFalse(STATEMENTS.isEmpty(), "Запрос не был выполнен");
+        for (String sql : STATEMENTS) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), "Полный просмотр таблицы в запросе:\n" + sql + "\nПлан:\n" + plan);
+            Matcher matcher = PLAN_INDEX.matcher(plan);
+            while (matcher.find()) {
+                String index = matcher.group(1);
+                assertTrue(!generatedIndexes.contains(index) || explicitLeadingColumns.contains(leadingColumns.get(index)),
+                        "Запрос использует неявный индекс внешнего ключа " + index
+                                + ", которого нет в PostgreSQL:\n" + sql + "\nПлан:\n" + plan);
+            }
+        }
+        STATEMENTS.clear();
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
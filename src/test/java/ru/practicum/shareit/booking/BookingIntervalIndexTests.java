@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositary.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка пересечений в индексе интервалов, в том числе когда в базе уже лежат
+ * пересекающиеся бронирования.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-intervals;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.bookings.events.enabled=false"
+})
+class BookingIntervalIndexTests {
+    private static final AtomicLong IDS = new AtomicLong(1_000_000);
+
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = IDS.incrementAndGet();
+        owner = userRepository.save(new User(null, "owner", "owner" + suffix + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker" + suffix + "@mail.ru"));
+        item = itemRepository.save(new Item(null, "item", "description", true, owner, null));
+        base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    @Test
+    void rejectsIntervalInsideLongerLoadedBookingBehindShorterOne() {
+        saveBooking(day(1), day(10));
+        saveBooking(day(2), day(3));
+
+        assertThrows(ConflictException.class, () -> reserve(day(5), day(6)));
+    }
+
+    @Test
+    void acceptsAdjacentIntervals() {
+        saveBooking(day(1), day(10));
+        saveBooking(day(2), day(3));
+
+        assertDoesNotThrow(() -> reserve(day(10), day(11)));
+        assertDoesNotThrow(() -> reserve(day(0), day(1)));
+    }
+
+    @Test
+    void rejectsOverlapWithReservedInterval() {
+        reserve(day(20), day(22));
+
+        assertThrows(ConflictException.class, () -> reserve(day(21), day(23)));
+        assertThrows(ConflictException.class, () -> reserve(day(19), day(21)));
+        assertThrows(ConflictException.class, () -> reserve(day(19), day(23)));
+        assertDoesNotThrow(() -> reserve(day(22), day(23)));
+    }
+
+    @Test
+    void acceptsIntervalAfterRelease() {
+        Booking booking = reserve(day(30), day(32));
+
+        bookingIntervalIndex.release(booking);
+
+        assertDoesNotThrow(() -> reserve(day(31), day(33)));
+    }
+
+    @Test
+    void ignoresRejectedBookings() {
+        saveBooking(day(1), day(10), BookingStatus.REJECTED);
+
+        assertDoesNotThrow(() -> reserve(day(5), day(6)));
+    }
+
+    private LocalDateTime day(int offset) {
+        return base.plusDays(offset);
+    }
+
+    private void saveBooking(LocalDateTime start, LocalDateTime end) {
+        saveBooking(start, end, BookingStatus.APPROVED);
+    }
+
+    private void saveBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+
+    private Booking reserve(LocalDateTime start, LocalDateTime end) {
+        return bookingIntervalIndex.reserve(item.getId(), start, end, () -> Booking.builder()
+                .id(IDS.incrementAndGet())
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositary.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-query-count;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.bookings.events.enabled=false"
+})
+class BookingQueryCountTests {
+    private static final int BOOKINGS = 1000;
+    private static final int ITEMS = 50;
+    private static final int BOOKERS = 20;
+    // по одному запросу к основной и архивной таблицам
+    private static final long STATEMENTS = 2;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(userRepository.save(new User(null, "booker" + i, "booker" + i + "@mail.ru")));
+        }
+        booker = bookers.get(0);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(new Item(null, "item" + i, "description" + i, true, owner, null)));
+        }
+        LocalDateTime start = LocalDateTime.now().minusYears(1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            User bookingBooker = i % 2 == 0 ? booker : bookers.get(i % BOOKERS);
+            bookings.add(Booking.builder()
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + 1))
+                    .item(items.get(i % ITEMS))
+                    .booker(bookingBooker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Test
+    void findAllByOwnerUsesFixedStatementCount() {
+        Statistics statistics = statistics();
+
+        List<BookingResponseDto> result = bookingService.findAllByOwner(owner.getId(), State.ALL, KeysetCursor.FIRST, null);
+
+        assertEquals(BOOKINGS, result.size());
+        assertEquals(STATEMENTS, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllByBookerUsesFixedStatementCount() {
+        Statistics statistics = statistics();
+
+        List<BookingResponseDto> result = bookingService.findAllByBooker(booker.getId(), State.PAST, KeysetCursor.FIRST, null);
+
+        assertEquals(BOOKINGS / 2, result.size());
+        assertEquals(STATEMENTS, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
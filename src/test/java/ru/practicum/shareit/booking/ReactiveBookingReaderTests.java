@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositary.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repositary.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ReactiveBookingReader;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Неблокирующее чтение должно возвращать те же бронирования и в том же порядке,
+ * что и BookingService, для каждого State, с архивом, лимитом и курсором.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-reactive;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.bookings.reactive.enabled=true",
+        "shareit.bookings.reactive.url=r2dbc:h2:mem:///booking-reactive;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+class ReactiveBookingReaderTests {
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ReactiveBookingReader reactiveBookingReader;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        bookingArchiveRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "description", true, owner, null));
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            LocalDateTime start = now.plusDays(i - 15);
+            bookings.add(Booking.builder()
+                    .start(start)
+                    .end(start.plusDays(i % 3 == 0 ? 2 : 1).minusHours(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(STATUSES[i % STATUSES.length])
+                    .build());
+        }
+        bookingRepository.saveAll(bookings);
+        for (int i = 0; i < 6; i++) {
+            LocalDateTime start = now.minusDays(100 + i);
+            jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)",
+                    100_000 + i, start, start.plusDays(1), item.getId(), booker.getId(), STATUSES[i % STATUSES.length].name());
+        }
+    }
+
+    @Test
+    void bookerListsMatchBlockingService() {
+        for (State state : State.values()) {
+            assertEquals(ids(bookingService.findAllByBooker(booker.getId(), state, KeysetCursor.FIRST, null)),
+                    ids(reactiveBookingReader.findAllByBooker(booker.getId(), state, KeysetCursor.FIRST, null)
+                            .collectList().block()), state.name());
+        }
+    }
+
+    @Test
+    void ownerListsMatchBlockingService() {
+        for (State state : State.values()) {
+            assertEquals(ids(bookingService.findAllByOwner(owner.getId(), state, KeysetCursor.FIRST, null)),
+                    ids(reactiveBookingReader.findAllByOwner(owner.getId(), state, KeysetCursor.FIRST, null)
+                            .collectList().block()), state.name());
+        }
+    }
+
+    @Test
+    void pagesMatchBlockingService() {
+        List<BookingResponseDto> firstPage = bookingService.findAllByOwner(owner.getId(), State.ALL, KeysetCursor.FIRST, 7);
+        BookingResponseDto last = firstPage.get(firstPage.size() - 1);
+        KeysetCursor cursor = KeysetCursor.after(last.getStart(), last.getId());
+
+        List<Long> expected = ids(bookingService.findAllByOwner(owner.getId(), State.ALL, cursor, 7));
+        List<Long> actual = ids(reactiveBookingReader.findAllByOwner(owner.getId(), State.ALL, cursor, 7)
+                .collectList().block());
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    private static List<Long> ids(List<BookingResponseDto> bookings) {
+        return bookings.stream().map(BookingResponseDto::getId).toList();
+    }
+}
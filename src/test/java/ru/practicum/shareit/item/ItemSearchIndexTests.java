@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.TransactionHooks;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Хук после коммита должен индексировать строку из базы, а не сущность своей транзакции:
+ * к моменту его выполнения строку уже могла изменить другая транзакция.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:item-search-index;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.bookings.events.enabled=false"
+})
+class ItemSearchIndexTests {
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reindexReadsCommittedRowInsteadOfStaleEntity() {
+        User owner = userRepository.save(new User(null, "owner", "search-owner@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "Ручная пила", "Пила по дереву", true, owner, null));
+        itemSearchIndex.reindex(List.of(item.getId()));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Item stale = itemRepository.findById(item.getId()).orElseThrow();
+            jdbcTemplate.update("update items set name = ?, description = ? where id = ?",
+                    "Аккумуляторная дрель", "Дрель с двумя батареями", stale.getId());
+            TransactionHooks.afterCommit(() -> itemSearchIndex.reindex(List.of(stale.getId())));
+        });
+
+        assertEquals(List.of(item.getId()), ids(itemSearchIndex.search("дрель")));
+        assertTrue(itemSearchIndex.search("пила").isEmpty());
+    }
+
+    @Test
+    void reindexRemovesUnavailableAndDeletedItems() {
+        User owner = userRepository.save(new User(null, "owner", "search-owner2@mail.ru"));
+        Item hidden = itemRepository.save(new Item(null, "Садовая тачка", "Тачка", true, owner, null));
+        Item deleted = itemRepository.save(new Item(null, "Садовый шланг", "Шланг", true, owner, null));
+        itemSearchIndex.reindex(List.of(hidden.getId(), deleted.getId()));
+
+        hidden.setAvailable(false);
+        itemRepository.save(hidden);
+        itemRepository.deleteById(deleted.getId());
+        itemSearchIndex.reindex(List.of(hidden.getId(), deleted.getId()));
+
+        assertTrue(itemSearchIndex.search("садов").isEmpty());
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.exception.ResourceNotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверяет, что массив пишется по страницам и что ошибка в середине потока
+ * не превращается в корректный, но неполный JSON.
+ */
+@SpringBootTest
+class JsonArrayStreamerTests {
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManager entityManager;
+
+    private JsonArrayStreamer streamer;
+    private final List<Integer> requestedAfter = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        streamer = new JsonArrayStreamer(objectMapper, entityManager, PAGE_SIZE);
+        requestedAfter.clear();
+    }
+
+    @Test
+    void writesAllPagesAsOneArray() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        streamer.write(response, (Integer last, int limit) -> page(last, limit, 5, Integer.MAX_VALUE));
+
+        assertEquals("[1,2,3,4,5]", response.getContentAsString());
+        assertEquals(List.of(0, 2, 4), requestedAfter);
+    }
+
+    @Test
+    void writesEmptyArrayForEmptyList() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        streamer.write(response, (Integer last, int limit) -> page(last, limit, 0, Integer.MAX_VALUE));
+
+        assertEquals("[]", response.getContentAsString());
+    }
+
+    @Test
+    void firstPageErrorLeavesResponseUntouched() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> streamer.write(response, (Integer last, int limit) -> page(last, limit, 5, 0)));
+
+        assertFalse(response.isCommitted());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void errorAfterCommitAbortsWithoutClosingArray() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(IllegalStateException.class,
+                () -> streamer.write(response, (Integer last, int limit) -> page(last, limit, 5, 2)));
+
+        assertEquals("[1,2", response.getContentAsString());
+    }
+
+    private List<Integer> page(Integer last, int limit, int total, int failAfter) {
+        int after = last == null ? 0 : last;
+        requestedAfter.add(after);
+        if (after >= failAfter) {
+            throw new ResourceNotFoundException("Страница после " + after + " недоступна");
+        }
+        List<Integer> page = new ArrayList<>();
+        for (int value = after + 1; value <= total && page.size() < limit; value++) {
+            page.add(value);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.user.storage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Фильтр не должен терять добавленные ID при росте за начальную емкость,
+ * а доля ложных срабатываний должна оставаться в пределах заданной.
+ */
+class ScalableBloomFilterTests {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void containsEveryAddedIdAfterGrowth() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, FALSE_POSITIVE_RATE);
+        int count = 50_000;
+
+        for (long id = 1; id <= count; id++) {
+            filter.add(id);
+        }
+
+        for (long id = 1; id <= count; id++) {
+            assertTrue(filter.mightContain(id), "Потерян ID " + id);
+        }
+        assertEquals(count, filter.size());
+    }
+
+    @Test
+    void keepsFalsePositiveRateWithinTarget() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, FALSE_POSITIVE_RATE);
+        int count = 50_000;
+        for (long id = 1; id <= count; id++) {
+            filter.add(id);
+        }
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (long id = count + 1; id <= count + probes; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed <= FALSE_POSITIVE_RATE, "Доля ложных срабатываний " + observed);
+        assertTrue(filter.expectedFalsePositiveRate() <= FALSE_POSITIVE_RATE,
+                "Оценка доли ложных срабатываний " + filter.expectedFalsePositiveRate());
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, FALSE_POSITIVE_RATE);
+
+        for (long id = 1; id <= 1_000; id++) {
+            assertFalse(filter.mightContain(id));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.user.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ID, добавленные во время перестройки фильтра, не должны теряться при публикации
+ * нового фильтра: иначе существующий пользователь получал бы 403 до следующей перестройки.
+ */
+class UserIdFilterTests {
+    private static final long SNAPSHOT_USERS = 1_000;
+
+    @Test
+    void acceptsEveryIdBeforeFirstRebuild() {
+        UserIdFilter filter = filter(() -> Stream.of(1L));
+
+        assertTrue(filter.mightExist(424_242L));
+    }
+
+    @Test
+    void rejectsUnknownIdsBelowMaxIdAfterRebuild() {
+        UserIdFilter filter = filter(() -> LongStream.rangeClosed(1, SNAPSHOT_USERS).map(id -> id * 2).boxed());
+
+        filter.rebuild();
+
+        int rejected = 0;
+        for (long id = 1; id <= SNAPSHOT_USERS; id++) {
+            assertTrue(filter.mightExist(id * 2));
+            if (!filter.mightExist(id * 2 - 1)) {
+                rejected++;
+            }
+        }
+        assertTrue(rejected >= SNAPSHOT_USERS * 0.95, "Отклонено только " + rejected);
+    }
+
+    @Test
+    void acceptsIdsAboveMaxIdSeenByRebuild() {
+        UserIdFilter filter = filter(() -> LongStream.rangeClosed(1, SNAPSHOT_USERS).boxed());
+
+        filter.rebuild();
+
+        for (long id = SNAPSHOT_USERS + 1; id <= SNAPSHOT_USERS * 2; id++) {
+            assertTrue(filter.mightExist(id), "ID " + id + " мог быть создан другим экземпляром");
+        }
+    }
+
+    @Test
+    void keepsIdsAddedDuringRebuild() {
+        UserIdFilter[] holder = new UserIdFilter[1];
+        long addedDuringRebuild = SNAPSHOT_USERS + 1;
+        holder[0] = filter(() -> LongStream.rangeClosed(1, SNAPSHOT_USERS).boxed()
+                .peek(id -> {
+                    if (id == SNAPSHOT_USERS / 2) {
+                        holder[0].add(addedDuringRebuild);
+                    }
+                }));
+
+        holder[0].rebuild();
+
+        assertTrue(holder[0].mightExist(addedDuringRebuild));
+    }
+
+    private static UserIdFilter filter(Supplier<Stream<Long>> ids) {
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("streamAllIds")) {
+                        return ids.get();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return new UserIdFilter(userRepository, new NoOpTransactionManager(), new SimpleMeterRegistry(),
+                SNAPSHOT_USERS, 0.01);
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}